@@ -0,0 +1,25 @@
+package config.Kit;
+
+import java.util.Map;
+
+public class KitDefinition {
+    public String id;
+    public String displayName;
+    public String parent; // kit whose items and armor this one starts from, e.g. "base"
+    public ItemDefinition[] items;
+    public ItemDefinition helmet;
+    public ItemDefinition chestplate;
+    public ItemDefinition leggings;
+    public ItemDefinition boots;
+    public ItemDefinition offHand;
+
+    public static class ItemDefinition {
+        public String material; // Material name, or TEAM_WOOL for the wearer's team wool
+        public int amount = 1;
+        public boolean unbreakable;
+        public boolean teamColor; // dye leather armor in the team's color
+        public String potion; // PotionType for potion items
+        public String name;
+        public Map<String, Integer> enchantments; // enchantment key -> level
+    }
+}
@@ -1,7 +1,6 @@
 package plugins.battlebox;
 
 import java.io.File;
-import java.io.FileInputStream;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -14,15 +13,13 @@ import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.WorldEdit;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
 import com.sk89q.worldedit.function.operation.Operation;
 import com.sk89q.worldedit.function.operation.Operations;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.session.ClipboardHolder;
 import com.sk89q.worldedit.world.World;
 
+import plugins.battlebox.arena.SchematicCache;
 import plugins.battlebox.commands.ArenaCommand;
 import plugins.battlebox.commands.BattleBoxCommand;
 import plugins.battlebox.core.GameService;
@@ -32,6 +29,7 @@ import plugins.battlebox.core.PlayerService;
 import plugins.battlebox.core.VirtualPlayerUtil;
 import plugins.battlebox.game.GameManager;
 import plugins.battlebox.listeners.ArenaCreationListener;
+import plugins.battlebox.listeners.ArenaJournalListener;
 import plugins.battlebox.listeners.BlockBreakListener;
 import plugins.battlebox.listeners.BlockPlaceListener;
 import plugins.battlebox.listeners.PlayerConnectionListener;
@@ -39,11 +37,14 @@ import plugins.battlebox.listeners.PlayerInteractListener;
 import plugins.battlebox.managers.ArenaCreationManager;
 import plugins.battlebox.managers.ArenaInstanceManager;
 import plugins.battlebox.managers.ArenaManager;
+import plugins.battlebox.managers.KitManager;
 import plugins.battlebox.managers.ScoreboardManager;
 import plugins.battlebox.managers.TimerManager;
 
 public final class BattleBox extends JavaPlugin {
 
+    private static final int SCHEMATIC_CACHE_SIZE = 8; // decoded clipboards kept in memory
+
     private GameService gameService;
     private PlayerService playerService;
     private KitService kitService;
@@ -53,6 +54,7 @@ public final class BattleBox extends JavaPlugin {
     private ArenaCreationManager arenaCreationManager;
     private TimerManager timerManager;
     private ScoreboardManager scoreboardManager;
+    private SchematicCache schematicCache;
 
     @Override
     public void onEnable() {
@@ -61,14 +63,19 @@ public final class BattleBox extends JavaPlugin {
         // Initialize virtual player utility
         VirtualPlayerUtil.initialize(this);
 
+        // Decoded schematics are reused across instance creation and resets
+        schematicCache = new SchematicCache(new File(getDataFolder().getParentFile().getParentFile(),
+                "plugins/WorldEdit/schematics"), SCHEMATIC_CACHE_SIZE);
+
         // Initialize managers
         ArenaManager arenaManager = new ArenaManager(this);
         arenaInstanceManager = new ArenaInstanceManager(this);
         gameManager = new GameManager(arenaInstanceManager);
 
         // Initialize services
-        playerService = new PlayerService(this);
-        kitService = new KitService();
+        KitManager kitManager = new KitManager(this);
+        playerService = new PlayerService(this, kitManager);
+        kitService = new KitService(kitManager);
         musicService = new MusicService(this);
         timerManager = new TimerManager(this);
         scoreboardManager = new ScoreboardManager(this, gameManager);
@@ -108,13 +115,15 @@ public final class BattleBox extends JavaPlugin {
                 this);
         pm.registerEvents(new BlockBreakListener(gameManager, arenaManager), this);
         pm.registerEvents(new PlayerInteractListener(gameManager, kitService, arenaManager), this);
-        pm.registerEvents(new PlayerConnectionListener(scoreboardManager), this);
+        pm.registerEvents(new PlayerConnectionListener(scoreboardManager, musicService, gameManager, gameService), this);
         pm.registerEvents(new ArenaCreationListener(arenaCreationManager), this);
+        pm.registerEvents(new ArenaJournalListener(arenaInstanceManager), this);
     }
 
     private void setupOnlinePlayers() {
         for (Player player : Bukkit.getOnlinePlayers()) {
             scoreboardManager.createScoreboard(player);
+            musicService.loadPlayerPreference(player);
         }
 
         // Start scoreboard update task
@@ -150,6 +159,10 @@ public final class BattleBox extends JavaPlugin {
         return musicService;
     }
 
+    public SchematicCache getSchematicCache() {
+        return schematicCache;
+    }
+
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (label.equalsIgnoreCase("loadarena")) {
@@ -168,29 +181,23 @@ public final class BattleBox extends JavaPlugin {
 
     public void pasteSchematic(String name, Location location) {
         try {
-            File schematic = new File(getDataFolder().getParentFile().getParentFile(),
-                    "plugins/WorldEdit/schematics/" + name);
-            ClipboardFormat format = ClipboardFormats.findByFile(schematic);
+            Clipboard clipboard = schematicCache.get(name);
 
-            if (format == null) {
+            if (clipboard == null) {
                 getLogger().warning("Could not find clipboard format for schematic: " + name);
                 return;
             }
 
-            try (ClipboardReader reader = format.getReader(new FileInputStream(schematic))) {
-                Clipboard clipboard = reader.read();
+            World adaptedWorld = BukkitAdapter.adapt(location.getWorld());
 
-                World adaptedWorld = BukkitAdapter.adapt(location.getWorld());
-
-                try (EditSession editSession = WorldEdit.getInstance().newEditSession(adaptedWorld)) {
-                    BlockVector3 pasteLocation = BlockVector3.at(location.getBlockX(), location.getBlockY(),
-                            location.getBlockZ());
-                    Operation operation = new ClipboardHolder(clipboard).createPaste(editSession)
-                            .to(pasteLocation)
-                            .ignoreAirBlocks(false)
-                            .build();
-                    Operations.complete(operation);
-                }
+            try (EditSession editSession = WorldEdit.getInstance().newEditSession(adaptedWorld)) {
+                BlockVector3 pasteLocation = BlockVector3.at(location.getBlockX(), location.getBlockY(),
+                        location.getBlockZ());
+                Operation operation = new ClipboardHolder(clipboard).createPaste(editSession)
+                        .to(pasteLocation)
+                        .ignoreAirBlocks(false)
+                        .build();
+                Operations.complete(operation);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -203,6 +210,9 @@ public final class BattleBox extends JavaPlugin {
         if (musicService != null) {
             musicService.shutdown();
         }
+        if (gameService != null) {
+            gameService.shutdown();
+        }
         if (timerManager != null) {
             timerManager.stopAllTimers();
         }
@@ -211,6 +221,12 @@ public final class BattleBox extends JavaPlugin {
                 scoreboardManager.removeScoreboard(player);
             }
         }
+        if (arenaInstanceManager != null) {
+            arenaInstanceManager.shutdown();
+        }
+        if (schematicCache != null) {
+            schematicCache.clear();
+        }
         getLogger().info("BattleBox plugin has been disabled!");
     }
 }
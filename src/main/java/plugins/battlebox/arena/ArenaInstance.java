@@ -1,33 +1,130 @@
 package plugins.battlebox.arena;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
 import plugins.battlebox.game.Game;
 
 public class ArenaInstance {
+    private static final int JOURNAL_CAPACITY = 4096; // touched blocks before falling back to a full re-paste
+    
     private final String instanceId;
     private final ArenaTemplate template;
     private final Location instanceLocation;
-    private Game currentGame;
-    private boolean inUse;
-    private long lastUsed;
+    private final int slot; // grid position within the template's instance area
+    private final AtomicReference<Game> currentGame = new AtomicReference<>(); // null while free
+    private volatile boolean resetting; // Schematic paste still in progress
+    private volatile long lastUsed;
+    private final BlockJournal journal = new BlockJournal(JOURNAL_CAPACITY);
+    
+    // World-space bounds of the pasted schematic
+    private boolean hasBounds;
+    private int minX, minY, minZ, maxX, maxY, maxZ;
+    // Where the schematic's original coordinates land here: original position + offset
+    private int offsetX, offsetY, offsetZ;
     
-    public ArenaInstance(String instanceId, ArenaTemplate template, Location instanceLocation) {
+    public ArenaInstance(String instanceId, ArenaTemplate template, Location instanceLocation, int slot) {
         this.instanceId = instanceId;
         this.template = template;
         this.instanceLocation = instanceLocation;
-        this.inUse = false;
+        this.slot = slot;
         this.lastUsed = System.currentTimeMillis();
     }
     
-    public void startGame(Game game) {
-        this.currentGame = game;
-        this.inUse = true;
+    /**
+     * Claim the instance for a game in one compare-and-set
+     *
+     * @return false if another game already holds it
+     */
+    public boolean tryClaim(Game game) {
+        return currentGame.compareAndSet(null, game);
     }
     
-    public void endGame() {
-        this.currentGame = null;
-        this.inUse = false;
-        this.lastUsed = System.currentTimeMillis();
+    /**
+     * Free the instance
+     *
+     * @return the game that held it, or null if it was already free
+     */
+    public Game endGame() {
+        Game game = currentGame.getAndSet(null);
+        if (game != null) {
+            this.lastUsed = System.currentTimeMillis();
+        }
+        return game;
+    }
+    
+    public void setBounds(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.hasBounds = true;
+    }
+    
+    public boolean hasBounds() {
+        return hasBounds;
+    }
+    
+    public void setOffset(int offsetX, int offsetY, int offsetZ) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.offsetZ = offsetZ;
+    }
+    
+    /**
+     * An arena configured where the schematic was taken from, moved onto
+     * this instance. Returned as is if the schematic never loaded.
+     */
+    public RuntimeArena locate(RuntimeArena arena) {
+        return hasBounds ? arena.translate(instanceLocation.getWorld(), offsetX, offsetY, offsetZ) : arena;
+    }
+    
+    public int getMinX() {
+        return minX;
+    }
+    
+    public int getMinZ() {
+        return minZ;
+    }
+    
+    public int getMaxX() {
+        return maxX;
+    }
+    
+    public int getMaxZ() {
+        return maxZ;
+    }
+    
+    public boolean contains(World world, int x, int y, int z) {
+        return hasBounds &&
+               x >= minX && x <= maxX &&
+               y >= minY && y <= maxY &&
+               z >= minZ && z <= maxZ &&
+               world.equals(instanceLocation.getWorld());
+    }
+    
+    /**
+     * Record a block's state before it changes during a game
+     */
+    public void recordOriginal(Block block) {
+        if (isInUse()) {
+            journal.record(block.getX(), block.getY(), block.getZ(), block.getBlockData());
+        }
+    }
+    
+    public void recordOriginal(BlockState state) {
+        if (isInUse()) {
+            journal.record(state.getX(), state.getY(), state.getZ(), state.getBlockData());
+        }
+    }
+    
+    public BlockJournal getJournal() {
+        return journal;
     }
     
     // Getters and setters
@@ -43,12 +140,31 @@ public class ArenaInstance {
         return instanceLocation; 
     }
     
+    public int getSlot() {
+        return slot;
+    }
+    
     public Game getCurrentGame() { 
-        return currentGame; 
+        return currentGame.get(); 
     }
     
     public boolean isInUse() { 
-        return inUse; 
+        return currentGame.get() != null; 
+    }
+    
+    public boolean isResetting() {
+        return resetting;
+    }
+    
+    public void setResetting(boolean resetting) {
+        this.resetting = resetting;
+    }
+    
+    /**
+     * Free and fully pasted, ready to be assigned to a game
+     */
+    public boolean isAvailable() {
+        return !isInUse() && !resetting;
     }
     
     public long getLastUsed() { 
@@ -60,7 +176,8 @@ public class ArenaInstance {
         return "ArenaInstance{" +
                 "instanceId='" + instanceId + '\'' +
                 ", template=" + template.getTemplateId() +
-                ", inUse=" + inUse +
+                ", inUse=" + isInUse() +
+                ", resetting=" + resetting +
                 '}';
     }
 }
@@ -0,0 +1,250 @@
+package plugins.battlebox.arena;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.function.entity.ExtentEntityCopy;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.math.transform.Identity;
+import com.sk89q.worldedit.world.World;
+
+/**
+ * Pastes schematics a few thousand blocks at a time instead of in one tick.
+ * Each paste is split into chunk-section-sized (16x16x16) jobs. All pending
+ * pastes share one per-tick block budget, which shrinks when the server is
+ * lagging and grows while there is headroom. Once the blocks are in, the
+ * clipboard's entities are copied over in one step, as the one-shot paste
+ * did. Biomes are not copied, which also matches the one-shot paste's
+ * defaults.
+ */
+public class ArenaPasteEngine {
+    private static final int SECTION_SIZE = 16;
+    private static final int MIN_BLOCK_BUDGET = 512;
+    private static final int MAX_BLOCK_BUDGET = 65536;
+    private static final int INITIAL_BLOCK_BUDGET = 4096;
+    private static final long TARGET_WORK_NANOS = 8_000_000L; // 8ms of the 50ms tick
+    private static final long LAGGING_TICK_NANOS = 55_000_000L; // tick took noticeably longer than 50ms
+
+    private final JavaPlugin plugin;
+    private final Deque<PasteJob> queue = new ArrayDeque<>();
+    private BukkitTask tickTask;
+    private int blockBudget = INITIAL_BLOCK_BUDGET;
+    private long lastTickStart;
+
+    public ArenaPasteEngine(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queue a clipboard paste. The callback runs on the main thread once the
+     * last block has been placed.
+     */
+    public void submit(Clipboard clipboard, Location location, Runnable onComplete) {
+        World world = BukkitAdapter.adapt(location.getWorld());
+        BlockVector3 to = BlockVector3.at(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        queue.add(new PasteJob(clipboard, world, to, onComplete));
+
+        if (tickTask == null) {
+            lastTickStart = System.nanoTime();
+            tickTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    public int getPendingPasteCount() {
+        return queue.size();
+    }
+
+    public int getBlockBudget() {
+        return blockBudget;
+    }
+
+    /**
+     * Finish every pending paste immediately (plugin shutdown)
+     */
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        while (!queue.isEmpty()) {
+            PasteJob job = queue.poll();
+            job.run(Integer.MAX_VALUE);
+            job.complete();
+        }
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        long tickInterval = start - lastTickStart;
+        lastTickStart = start;
+
+        int remaining = blockBudget;
+        while (remaining > 0 && !queue.isEmpty()) {
+            PasteJob job = queue.peek();
+            remaining -= job.run(remaining);
+            if (job.isDone()) {
+                queue.poll();
+                job.complete();
+            }
+        }
+
+        adaptBudget(System.nanoTime() - start, tickInterval, remaining <= 0);
+
+        if (queue.isEmpty()) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+    }
+
+    private void adaptBudget(long workNanos, long tickInterval, boolean budgetExhausted) {
+        if (workNanos > TARGET_WORK_NANOS || tickInterval > LAGGING_TICK_NANOS) {
+            blockBudget = Math.max(MIN_BLOCK_BUDGET, blockBudget / 2);
+        } else if (budgetExhausted && workNanos < TARGET_WORK_NANOS / 2) {
+            blockBudget = Math.min(MAX_BLOCK_BUDGET, blockBudget + blockBudget / 4);
+        }
+    }
+
+    /**
+     * One queued paste: a queue of section jobs covering the clipboard region
+     */
+    private class PasteJob {
+        private final Clipboard clipboard;
+        private final World world;
+        private final BlockVector3 offset; // clipboard position + offset = world position
+        private final Runnable onComplete;
+        private final Deque<SectionJob> sections = new ArrayDeque<>();
+        private final BlockVector3 to;
+        private boolean entitiesCopied;
+
+        PasteJob(Clipboard clipboard, World world, BlockVector3 to, Runnable onComplete) {
+            this.clipboard = clipboard;
+            this.world = world;
+            this.offset = to.subtract(clipboard.getOrigin());
+            this.onComplete = onComplete;
+            this.to = to;
+
+            BlockVector3 min = clipboard.getMinimumPoint().add(offset);
+            BlockVector3 max = clipboard.getMaximumPoint().add(offset);
+            for (int sx = Math.floorDiv(min.x(), SECTION_SIZE); sx <= Math.floorDiv(max.x(), SECTION_SIZE); sx++) {
+                for (int sz = Math.floorDiv(min.z(), SECTION_SIZE); sz <= Math.floorDiv(max.z(), SECTION_SIZE); sz++) {
+                    for (int sy = Math.floorDiv(min.y(), SECTION_SIZE); sy <= Math.floorDiv(max.y(), SECTION_SIZE); sy++) {
+                        sections.add(new SectionJob(
+                                Math.max(min.x(), sx * SECTION_SIZE), Math.min(max.x(), sx * SECTION_SIZE + SECTION_SIZE - 1),
+                                Math.max(min.y(), sy * SECTION_SIZE), Math.min(max.y(), sy * SECTION_SIZE + SECTION_SIZE - 1),
+                                Math.max(min.z(), sz * SECTION_SIZE), Math.min(max.z(), sz * SECTION_SIZE + SECTION_SIZE - 1)));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Place up to budget blocks
+         *
+         * @return number of blocks processed
+         */
+        int run(int budget) {
+            int processed = 0;
+            try (EditSession editSession = WorldEdit.getInstance().newEditSession(world)) {
+                while (processed < budget && !sections.isEmpty()) {
+                    SectionJob section = sections.peek();
+                    processed += section.run(editSession, budget - processed);
+                    if (section.isDone()) {
+                        sections.poll();
+                    }
+                }
+                if (sections.isEmpty() && !entitiesCopied) {
+                    entitiesCopied = true;
+                    processed += copyEntities(editSession);
+                }
+            } catch (WorldEditException | RuntimeException e) {
+                // Give up on this paste so it leaves the queue instead of failing every tick
+                plugin.getLogger().log(Level.WARNING, "Arena paste failed, skipping remaining blocks", e);
+                sections.clear();
+                entitiesCopied = true;
+            }
+            return processed;
+        }
+
+        /**
+         * Copy the clipboard's entities (armor stands, item frames, ...) to the
+         * paste location. ExtentEntityCopy also moves hanging entities and
+         * drops the copied UUIDs, as the one-shot paste did.
+         */
+        private int copyEntities(EditSession editSession) throws WorldEditException {
+            ExtentEntityCopy copy = new ExtentEntityCopy(clipboard, clipboard.getOrigin().toVector3(), editSession,
+                    to.toVector3(), new Identity());
+            int copied = 0;
+            for (Entity entity : clipboard.getEntities()) {
+                if (copy.apply(entity)) {
+                    copied++;
+                }
+            }
+            return copied;
+        }
+
+        boolean isDone() {
+            return sections.isEmpty() && entitiesCopied;
+        }
+
+        void complete() {
+            if (onComplete != null) {
+                onComplete.run();
+            }
+        }
+
+        /**
+         * Blocks of one chunk section, with a resumable cursor
+         */
+        private class SectionJob {
+            private final int minX, maxX, minY, maxY, minZ, maxZ;
+            private int x, y, z;
+
+            SectionJob(int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+                this.minX = minX;
+                this.maxX = maxX;
+                this.minY = minY;
+                this.maxY = maxY;
+                this.minZ = minZ;
+                this.maxZ = maxZ;
+                this.x = minX;
+                this.y = minY;
+                this.z = minZ;
+            }
+
+            int run(EditSession editSession, int budget) throws WorldEditException {
+                int processed = 0;
+                while (processed < budget && y <= maxY) {
+                    BlockVector3 target = BlockVector3.at(x, y, z);
+                    editSession.setBlock(target, clipboard.getFullBlock(target.subtract(offset)));
+                    processed++;
+
+                    // Advance x fastest, then z, then y
+                    if (++x > maxX) {
+                        x = minX;
+                        if (++z > maxZ) {
+                            z = minZ;
+                            y++;
+                        }
+                    }
+                }
+                return processed;
+            }
+
+            boolean isDone() {
+                return y > maxY;
+            }
+        }
+    }
+}
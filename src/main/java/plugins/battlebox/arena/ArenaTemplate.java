@@ -4,18 +4,30 @@ import org.bukkit.Location;
 import config.ArenaConfig;
 
 public class ArenaTemplate {
+    public static final int DEFAULT_MIN_IDLE = 1;
+    public static final int DEFAULT_MAX_IDLE = 3;
+    
     private final String templateId;
     private final String schematicName;
     private final Location baseLocation;
     private final ArenaConfig config;
     private final int maxInstances;
+    private final int minIdle; // idle instances kept pasted and ready
+    private final int maxIdle; // idle instances beyond this are evicted
     
     public ArenaTemplate(String templateId, String schematicName, Location baseLocation, ArenaConfig config, int maxInstances) {
+        this(templateId, schematicName, baseLocation, config, maxInstances, DEFAULT_MIN_IDLE, DEFAULT_MAX_IDLE);
+    }
+    
+    public ArenaTemplate(String templateId, String schematicName, Location baseLocation, ArenaConfig config,
+                         int maxInstances, int minIdle, int maxIdle) {
         this.templateId = templateId;
         this.schematicName = schematicName;
         this.baseLocation = baseLocation;
         this.config = config;
         this.maxInstances = maxInstances;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxInstances));
+        this.maxIdle = Math.max(this.minIdle, maxIdle);
     }
     
     // Getters
@@ -39,12 +51,22 @@ public class ArenaTemplate {
         return maxInstances; 
     }
     
+    public int getMinIdle() {
+        return minIdle;
+    }
+    
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+    
     @Override
     public String toString() {
         return "ArenaTemplate{" +
                 "templateId='" + templateId + '\'' +
                 ", schematicName='" + schematicName + '\'' +
                 ", maxInstances=" + maxInstances +
+                ", minIdle=" + minIdle +
+                ", maxIdle=" + maxIdle +
                 '}';
     }
 }
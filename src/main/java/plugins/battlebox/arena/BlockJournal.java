@@ -0,0 +1,113 @@
+package plugins.battlebox.arena;
+
+import java.util.Arrays;
+
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * Original states of the blocks touched during a game, keyed by packed
+ * coordinates (see {@link BlockKey}). Only the first change to a position is
+ * kept, so restoring the journal puts the arena back exactly as it was.
+ * Once more than {@code capacity} positions are touched the journal
+ * overflows and the arena has to be re-pasted instead.
+ */
+public class BlockJournal {
+    private static final long EMPTY = Long.MIN_VALUE; // x = -2^25, far outside any world border
+    private static final int INITIAL_TABLE_SIZE = 64;
+
+    private final int capacity;
+    private long[] table; // open-addressing set of recorded positions
+    private long[] positions; // insertion order
+    private BlockData[] originals;
+    private int size;
+    private boolean overflowed;
+
+    public BlockJournal(int capacity) {
+        this.capacity = capacity;
+        this.table = newTable(INITIAL_TABLE_SIZE);
+        this.positions = new long[INITIAL_TABLE_SIZE / 2];
+        this.originals = new BlockData[INITIAL_TABLE_SIZE / 2];
+    }
+
+    /**
+     * Record the original state of a block, unless the position was already
+     * recorded
+     */
+    public void record(int x, int y, int z, BlockData original) {
+        if (overflowed) {
+            return;
+        }
+
+        long key = BlockKey.pack(x, y, z);
+        if (table[findSlot(table, key)] == key) {
+            return;
+        }
+
+        if (size == capacity) {
+            overflowed = true;
+            return;
+        }
+
+        if (size == positions.length) {
+            grow();
+        }
+        table[findSlot(table, key)] = key;
+        positions[size] = key;
+        originals[size] = original;
+        size++;
+    }
+
+    /**
+     * Put every recorded block back in the world, without physics updates
+     */
+    public void restore(World world) {
+        for (int i = 0; i < size; i++) {
+            long key = positions[i];
+            world.getBlockAt(BlockKey.x(key), BlockKey.y(key), BlockKey.z(key)).setBlockData(originals[i], false);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        Arrays.fill(originals, 0, size, null);
+        size = 0;
+        overflowed = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    private void grow() {
+        int newLength = Math.min(positions.length * 2, capacity);
+        positions = Arrays.copyOf(positions, newLength);
+        originals = Arrays.copyOf(originals, newLength);
+
+        // Keep the table a power of two and at most half full
+        long[] newTable = newTable(Integer.highestOneBit(newLength * 2 - 1) << 1);
+        for (int i = 0; i < size; i++) {
+            newTable[findSlot(newTable, positions[i])] = positions[i];
+        }
+        table = newTable;
+    }
+
+    private static int findSlot(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (table[slot] != EMPTY && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long[] newTable(int length) {
+        long[] table = new long[length];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -0,0 +1,108 @@
+package plugins.battlebox.arena;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.World;
+
+/**
+ * Maps (world, chunkX, chunkZ) to the values whose block region overlaps that
+ * chunk. Lets event listeners throw away events outside every arena with one
+ * primitive hash lookup. Main thread only, like the listeners that read it.
+ */
+public class ChunkIndex<T> {
+    private final Map<World, LongHashMap<List<T>>> worlds = new HashMap<>();
+    private final Map<T, Registration> registrations = new IdentityHashMap<>();
+
+    /**
+     * Index a value over the chunks covering a block region, replacing any
+     * earlier registration of the same value
+     */
+    public void add(T value, World world, int minX, int minZ, int maxX, int maxZ) {
+        remove(value);
+
+        int minChunkX = minX >> 4;
+        int minChunkZ = minZ >> 4;
+        int maxChunkX = maxX >> 4;
+        int maxChunkZ = maxZ >> 4;
+        LongHashMap<List<T>> chunks = worlds.computeIfAbsent(world, w -> new LongHashMap<>());
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                long key = chunkKey(cx, cz);
+                List<T> values = chunks.get(key);
+                if (values == null) {
+                    values = new ArrayList<>(1);
+                    chunks.put(key, values);
+                }
+                values.add(value);
+            }
+        }
+        registrations.put(value, new Registration(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ));
+    }
+
+    public void remove(T value) {
+        Registration registration = registrations.remove(value);
+        if (registration == null) {
+            return;
+        }
+
+        LongHashMap<List<T>> chunks = worlds.get(registration.world);
+        for (int cx = registration.minChunkX; cx <= registration.maxChunkX; cx++) {
+            for (int cz = registration.minChunkZ; cz <= registration.maxChunkZ; cz++) {
+                long key = chunkKey(cx, cz);
+                List<T> values = chunks.get(key);
+                if (values != null && values.remove(value) && values.isEmpty()) {
+                    chunks.remove(key);
+                }
+            }
+        }
+        if (chunks.isEmpty()) {
+            worlds.remove(registration.world);
+        }
+    }
+
+    /**
+     * Values whose region overlaps the chunk holding a block position. The
+     * returned list must not be modified.
+     */
+    public List<T> get(World world, int blockX, int blockZ) {
+        if (worlds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LongHashMap<List<T>> chunks = worlds.get(world);
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+        List<T> values = chunks.get(chunkKey(blockX >> 4, blockZ >> 4));
+        return values != null ? values : Collections.emptyList();
+    }
+
+    public boolean contains(World world, int blockX, int blockZ) {
+        return !get(world, blockX, blockZ).isEmpty();
+    }
+
+    public int size() {
+        return registrations.size();
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static class Registration {
+        private final World world;
+        private final int minChunkX, minChunkZ, maxChunkX, maxChunkZ;
+
+        Registration(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+            this.world = world;
+            this.minChunkX = minChunkX;
+            this.minChunkZ = minChunkZ;
+            this.maxChunkX = maxChunkX;
+            this.maxChunkZ = maxChunkZ;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package plugins.battlebox.arena;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import config.ArenaConfig;
+import config.Box;
+import config.Kit.Button;
+import config.Kit.Kit;
+import plugins.battlebox.game.Game;
+
+/**
+ * Immutable, pre-computed view of an {@link ArenaConfig}, built once when the
+ * arena is loaded. Holds normalized center bounds, spawn locations and a
+ * packed-coordinate index of kit buttons so the game and listeners never redo
+ * that work per event. A game played on a pasted arena instance gets a
+ * {@link #translate translated} copy, so every position it uses is in the
+ * instance.
+ */
+public final class RuntimeArena {
+    /** Every button material */
+    public static final Set<Material> BUTTON_MATERIALS;
+    /** Anything a kit can be bound to: buttons, pressure plates and levers */
+    public static final Set<Material> KIT_TRIGGER_MATERIALS;
+
+    private static final int REGION_MARGIN = 8; // blocks around the configured points that still count as the arena
+
+    static {
+        EnumSet<Material> buttons = EnumSet.noneOf(Material.class);
+        EnumSet<Material> triggers = EnumSet.of(Material.LEVER);
+        for (Material material : Material.values()) {
+            if (material.name().contains("BUTTON")) {
+                buttons.add(material);
+                triggers.add(material);
+            } else if (material.name().contains("PRESSURE_PLATE")) {
+                triggers.add(material);
+            }
+        }
+        BUTTON_MATERIALS = Collections.unmodifiableSet(buttons);
+        KIT_TRIGGER_MATERIALS = Collections.unmodifiableSet(triggers);
+    }
+
+    private final ArenaConfig config;
+    private final String id;
+    private final String worldName;
+    private volatile World world; // re-resolved if the world loads after the plugin or is reloaded
+
+    // Center area, normalized so min <= max
+    private final Box centerBox;
+    private final int centerMinX, centerMaxX, centerMinZ, centerMaxZ, centerY;
+
+    // Spawn points without a world, copied with the resolved world on access
+    private final Location redSpawn, blueSpawn, redTeleport, blueTeleport;
+
+    // Horizontal footprint: center, spawns and kit buttons plus a margin
+    private final int regionMinX, regionMinZ, regionMaxX, regionMaxZ;
+
+    // BlockKey -> kit type per team (indexed by TeamColor ordinal). Read-only after construction.
+    // Keys are in config coordinates; translated copies share the index and shift lookups back.
+    private final LongHashMap<String[]> kitButtons;
+    private final int offsetX, offsetY, offsetZ;
+
+    public RuntimeArena(ArenaConfig config) {
+        this.config = config;
+        this.id = config.id;
+        this.worldName = config.world;
+        this.world = worldName != null ? Bukkit.getWorld(worldName) : null;
+
+        Box box = config.centerBox;
+        if (box != null) {
+            this.centerMinX = Math.min(box.x1, box.x2);
+            this.centerMaxX = Math.max(box.x1, box.x2);
+            this.centerMinZ = Math.min(box.z1, box.z2);
+            this.centerMaxZ = Math.max(box.z1, box.z2);
+            this.centerY = box.y1;
+            this.centerBox = new Box(centerMinX, centerY, centerMinZ, centerMaxX, centerY, centerMaxZ);
+        } else {
+            this.centerMinX = this.centerMaxX = this.centerMinZ = this.centerMaxZ = this.centerY = 0;
+            this.centerBox = null;
+        }
+
+        ArenaConfig.TeamSpawns spawns = config.teamSpawns;
+        this.redSpawn = spawns != null ? toLocation(spawns.redSpawn) : null;
+        this.blueSpawn = spawns != null ? toLocation(spawns.blueSpawn) : null;
+        this.redTeleport = spawns != null ? toLocation(spawns.redTeleport) : null;
+        this.blueTeleport = spawns != null ? toLocation(spawns.blueTeleport) : null;
+
+        this.kitButtons = indexButtons(config.kits);
+        this.offsetX = this.offsetY = this.offsetZ = 0;
+
+        int[] region = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+        if (centerBox != null) {
+            includeInRegion(region, centerMinX, centerMinZ);
+            includeInRegion(region, centerMaxX, centerMaxZ);
+        }
+        for (Location point : new Location[] { redSpawn, blueSpawn, redTeleport, blueTeleport }) {
+            if (point != null) {
+                includeInRegion(region, point.getBlockX(), point.getBlockZ());
+            }
+        }
+        if (config.kits != null) {
+            for (Kit kit : config.kits) {
+                if (kit != null && kit.buttons != null) {
+                    for (Button button : kit.buttons) {
+                        if (button != null) {
+                            includeInRegion(region, button.x, button.z);
+                        }
+                    }
+                }
+            }
+        }
+        boolean empty = region[0] > region[2];
+        this.regionMinX = empty ? 0 : region[0] - REGION_MARGIN;
+        this.regionMinZ = empty ? 0 : region[1] - REGION_MARGIN;
+        this.regionMaxX = empty ? -1 : region[2] + REGION_MARGIN;
+        this.regionMaxZ = empty ? -1 : region[3] + REGION_MARGIN;
+    }
+
+    private RuntimeArena(RuntimeArena source, World world, int dx, int dy, int dz) {
+        this.config = source.config;
+        this.id = source.id;
+        this.worldName = world.getName();
+        this.world = world;
+
+        this.centerMinX = source.centerMinX + dx;
+        this.centerMaxX = source.centerMaxX + dx;
+        this.centerMinZ = source.centerMinZ + dz;
+        this.centerMaxZ = source.centerMaxZ + dz;
+        this.centerY = source.centerY + dy;
+        this.centerBox = source.centerBox != null
+                ? new Box(centerMinX, centerY, centerMinZ, centerMaxX, centerY, centerMaxZ)
+                : null;
+
+        this.redSpawn = shift(source.redSpawn, dx, dy, dz);
+        this.blueSpawn = shift(source.blueSpawn, dx, dy, dz);
+        this.redTeleport = shift(source.redTeleport, dx, dy, dz);
+        this.blueTeleport = shift(source.blueTeleport, dx, dy, dz);
+
+        this.kitButtons = source.kitButtons;
+        this.offsetX = source.offsetX + dx;
+        this.offsetY = source.offsetY + dy;
+        this.offsetZ = source.offsetZ + dz;
+
+        boolean empty = !source.hasRegion();
+        this.regionMinX = empty ? 0 : source.regionMinX + dx;
+        this.regionMinZ = empty ? 0 : source.regionMinZ + dz;
+        this.regionMaxX = empty ? -1 : source.regionMaxX + dx;
+        this.regionMaxZ = empty ? -1 : source.regionMaxZ + dz;
+    }
+
+    /**
+     * This arena moved by an offset into a world, for a copy of it pasted
+     * elsewhere. The raw config is shared and keeps its original coordinates.
+     */
+    public RuntimeArena translate(World world, int dx, int dy, int dz) {
+        return new RuntimeArena(this, world, dx, dy, dz);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * The arena's world, or null if it is not loaded
+     */
+    public World getWorld() {
+        World resolved = world;
+        // An unloaded world drops out of Bukkit's list; don't hand out the stale instance
+        if ((resolved == null || Bukkit.getWorld(resolved.getUID()) != resolved) && worldName != null) {
+            resolved = Bukkit.getWorld(worldName);
+            world = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * The raw config this arena was compiled from, in its original coordinates
+     */
+    public ArenaConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Spawns, teleports and center area are all configured
+     */
+    public boolean isComplete() {
+        return centerBox != null &&
+                redSpawn != null && blueSpawn != null &&
+                redTeleport != null && blueTeleport != null;
+    }
+
+    // Center area
+
+    public boolean hasCenter() {
+        return centerBox != null;
+    }
+
+    public boolean isInCenter(int x, int y, int z) {
+        return centerBox != null && y == centerY &&
+                x >= centerMinX && x <= centerMaxX &&
+                z >= centerMinZ && z <= centerMaxZ;
+    }
+
+    /**
+     * Normalized copy of the center box (single layer at {@link #getCenterY()})
+     */
+    public Box getCenterBox() {
+        return centerBox;
+    }
+
+    public int getCenterMinX() {
+        return centerMinX;
+    }
+
+    public int getCenterMaxX() {
+        return centerMaxX;
+    }
+
+    public int getCenterMinZ() {
+        return centerMinZ;
+    }
+
+    public int getCenterMaxZ() {
+        return centerMaxZ;
+    }
+
+    public int getCenterY() {
+        return centerY;
+    }
+
+    public double getCenterX() {
+        return (centerMinX + centerMaxX) / 2.0;
+    }
+
+    public double getCenterZ() {
+        return (centerMinZ + centerMaxZ) / 2.0;
+    }
+
+    // Region
+
+    /**
+     * At least one point (center, spawn or button) is configured
+     */
+    public boolean hasRegion() {
+        return regionMinX <= regionMaxX;
+    }
+
+    public int getRegionMinX() {
+        return regionMinX;
+    }
+
+    public int getRegionMinZ() {
+        return regionMinZ;
+    }
+
+    public int getRegionMaxX() {
+        return regionMaxX;
+    }
+
+    public int getRegionMaxZ() {
+        return regionMaxZ;
+    }
+
+    // Spawns
+
+    /**
+     * Team spawn used during kit selection, or null if unset or the world is not loaded
+     */
+    public Location getSpawn(Game.TeamColor team) {
+        return withWorld(team == Game.TeamColor.RED ? redSpawn : blueSpawn);
+    }
+
+    /**
+     * Team battle position, or null if unset or the world is not loaded
+     */
+    public Location getTeleport(Game.TeamColor team) {
+        return withWorld(team == Game.TeamColor.RED ? redTeleport : blueTeleport);
+    }
+
+    // Kit buttons
+
+    public boolean isKitButton(int x, int y, int z) {
+        return kitButtons.containsKey(BlockKey.pack(x - offsetX, y - offsetY, z - offsetZ));
+    }
+
+    /**
+     * The kit type (without team prefix) a team gets from the button at a
+     * position, or null if it isn't one of that team's kit buttons
+     */
+    public String getKitType(int x, int y, int z, Game.TeamColor team) {
+        String[] kitTypes = kitButtons.get(BlockKey.pack(x - offsetX, y - offsetY, z - offsetZ));
+        return kitTypes != null ? kitTypes[team.ordinal()] : null;
+    }
+
+    private static void includeInRegion(int[] region, int x, int z) {
+        region[0] = Math.min(region[0], x);
+        region[1] = Math.min(region[1], z);
+        region[2] = Math.max(region[2], x);
+        region[3] = Math.max(region[3], z);
+    }
+
+    private Location withWorld(Location template) {
+        World resolved = getWorld();
+        if (template == null || resolved == null) {
+            return null;
+        }
+        Location location = template.clone();
+        location.setWorld(resolved);
+        return location;
+    }
+
+    private static Location shift(Location location, int dx, int dy, int dz) {
+        return location != null ? location.clone().add(dx, dy, dz) : null;
+    }
+
+    private static Location toLocation(ArenaConfig.Location loc) {
+        return loc != null ? new Location(null, loc.x, loc.y, loc.z, loc.yaw, loc.pitch) : null;
+    }
+
+    private static LongHashMap<String[]> indexButtons(Kit[] kits) {
+        LongHashMap<String[]> index = new LongHashMap<>();
+        if (kits == null) {
+            return index;
+        }
+
+        // Kits are named "<team>_<type>"; the first kit bound to a position wins, as before
+        for (Kit kit : kits) {
+            if (kit == null || kit.name == null || kit.buttons == null) {
+                continue;
+            }
+            Game.TeamColor team = kit.name.startsWith("red_") ? Game.TeamColor.RED
+                    : kit.name.startsWith("blue_") ? Game.TeamColor.BLUE : null;
+            if (team == null) {
+                continue;
+            }
+            String kitType = kit.name.substring(kit.name.indexOf('_') + 1);
+
+            for (Button button : kit.buttons) {
+                if (button == null) {
+                    continue;
+                }
+                long key = BlockKey.pack(button.x, button.y, button.z);
+                String[] kitTypes = index.get(key);
+                if (kitTypes == null) {
+                    kitTypes = new String[Game.TeamColor.values().length];
+                    index.put(key, kitTypes);
+                }
+                if (kitTypes[team.ordinal()] == null) {
+                    kitTypes[team.ordinal()] = kitType;
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,93 @@
+package plugins.battlebox.arena;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
+
+/**
+ * Size-bounded LRU cache of decoded schematic clipboards.
+ * Entries are keyed by schematic name and invalidated when the file's
+ * modification time changes, so repeat pastes skip disk reads and NBT decoding.
+ */
+public class SchematicCache {
+    private final File schematicFolder;
+    private final Map<String, CachedClipboard> entries;
+    private long hits;
+    private long misses;
+
+    public SchematicCache(File schematicFolder, int maxEntries) {
+        this.schematicFolder = schematicFolder;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClipboard> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the decoded clipboard for a schematic, loading it on a miss
+     *
+     * @return the clipboard, or null if the file format is not recognised
+     */
+    public synchronized Clipboard get(String name) throws IOException {
+        File schematic = new File(schematicFolder, name);
+        long lastModified = schematic.lastModified();
+
+        CachedClipboard cached = entries.get(name);
+        if (cached != null && cached.lastModified == lastModified) {
+            hits++;
+            return cached.clipboard;
+        }
+        misses++;
+
+        ClipboardFormat format = ClipboardFormats.findByFile(schematic);
+        if (format == null) {
+            entries.remove(name);
+            return null;
+        }
+
+        try (ClipboardReader reader = format.getReader(new FileInputStream(schematic))) {
+            Clipboard clipboard = reader.read();
+            entries.put(name, new CachedClipboard(clipboard, lastModified));
+            return clipboard;
+        }
+    }
+
+    public synchronized void invalidate(String name) {
+        entries.remove(name);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static class CachedClipboard {
+        private final Clipboard clipboard;
+        private final long lastModified;
+
+        CachedClipboard(Clipboard clipboard, long lastModified) {
+            this.clipboard = clipboard;
+            this.lastModified = lastModified;
+        }
+    }
+}
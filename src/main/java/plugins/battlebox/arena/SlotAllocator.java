@@ -0,0 +1,88 @@
+package plugins.battlebox.arena;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * Hands out non-overlapping, chunk-aligned cells of a template's instance
+ * area. Cells are laid out in rows of {@code columns} starting at the origin
+ * chunk. Released slots go on a free-list and the most recently freed one is
+ * reused first, so its chunks are likely still loaded.
+ */
+public class SlotAllocator {
+    private static final int CHUNK_SIZE = 16;
+
+    private final int originX;
+    private final int originZ;
+    private final int cellSizeX;
+    private final int cellSizeZ;
+    private final int columns;
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet allocated = new BitSet();
+    private int nextSlot;
+
+    /**
+     * @param originX    block x of the area's corner, rounded down to a chunk
+     * @param originZ    block z of the area's corner, rounded down to a chunk
+     * @param footprintX width of one instance plus the gap to its neighbour
+     * @param footprintZ depth of one instance plus the gap to its neighbour
+     * @param columns    cells per row
+     */
+    public SlotAllocator(int originX, int originZ, int footprintX, int footprintZ, int columns) {
+        this.originX = Math.floorDiv(originX, CHUNK_SIZE) * CHUNK_SIZE;
+        this.originZ = Math.floorDiv(originZ, CHUNK_SIZE) * CHUNK_SIZE;
+        this.cellSizeX = roundUpToChunk(footprintX);
+        this.cellSizeZ = roundUpToChunk(footprintZ);
+        this.columns = Math.max(1, columns);
+    }
+
+    /**
+     * Take a free slot, reusing released ones before growing the area
+     */
+    public synchronized int allocate() {
+        int slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+        allocated.set(slot);
+        return slot;
+    }
+
+    /**
+     * Give a slot back. Releasing a slot that is not allocated does nothing.
+     */
+    public synchronized void release(int slot) {
+        if (slot >= 0 && allocated.get(slot)) {
+            allocated.clear(slot);
+            freeSlots.push(slot);
+        }
+    }
+
+    public synchronized int getAllocatedCount() {
+        return allocated.cardinality();
+    }
+
+    /**
+     * Block x of the slot's cell corner (always a chunk boundary)
+     */
+    public int getCellX(int slot) {
+        return originX + (slot % columns) * cellSizeX;
+    }
+
+    /**
+     * Block z of the slot's cell corner (always a chunk boundary)
+     */
+    public int getCellZ(int slot) {
+        return originZ + (slot / columns) * cellSizeZ;
+    }
+
+    public int getCellSizeX() {
+        return cellSizeX;
+    }
+
+    public int getCellSizeZ() {
+        return cellSizeZ;
+    }
+
+    private static int roundUpToChunk(int blocks) {
+        return Math.max(1, (blocks + CHUNK_SIZE - 1) / CHUNK_SIZE) * CHUNK_SIZE;
+    }
+}
@@ -54,7 +54,7 @@ public class ArenaInstanceCommand implements CommandExecutor, TabCompleter {
     
     private void handleRegister(Player player, String[] args) {
         if (args.length < 4) {
-            player.sendMessage("§cUsage: /arenainstance register <templateId> <schematicName> <maxInstances> [arenaId]");
+            player.sendMessage("§cUsage: /arenainstance register <templateId> <schematicName> <maxInstances> [arenaId] [minIdle] [maxIdle]");
             return;
         }
         
@@ -78,13 +78,31 @@ public class ArenaInstanceCommand implements CommandExecutor, TabCompleter {
             }
         }
         
+        // Idle pool policy
+        int minIdle = ArenaTemplate.DEFAULT_MIN_IDLE;
+        int maxIdle = ArenaTemplate.DEFAULT_MAX_IDLE;
+        try {
+            if (args.length > 5) {
+                minIdle = Integer.parseInt(args[5]);
+            }
+            if (args.length > 6) {
+                maxIdle = Integer.parseInt(args[6]);
+            }
+        } catch (NumberFormatException e) {
+            player.sendMessage("§cMin/max idle must be numbers.");
+            return;
+        }
+        
         Location baseLocation = player.getLocation();
         
-        if (arenaInstanceManager.registerTemplate(templateId, schematicName, baseLocation, config, maxInstances)) {
+        if (arenaInstanceManager.registerTemplate(templateId, schematicName, baseLocation, config, maxInstances,
+                                                  minIdle, maxIdle)) {
+            ArenaTemplate template = arenaInstanceManager.getTemplate(templateId);
             player.sendMessage("§aTemplate '" + templateId + "' registered successfully!");
             player.sendMessage("§7Base location: " + baseLocation.getBlockX() + ", " + 
                              baseLocation.getBlockY() + ", " + baseLocation.getBlockZ());
             player.sendMessage("§7Max instances: " + maxInstances);
+            player.sendMessage("§7Idle pool: " + template.getMinIdle() + "-" + template.getMaxIdle() + " (pre-warming in background)");
         } else {
             player.sendMessage("§cTemplate '" + templateId + "' already exists.");
         }
@@ -127,7 +145,7 @@ public class ArenaInstanceCommand implements CommandExecutor, TabCompleter {
             }
             
             for (ArenaInstance instance : instances) {
-                String status = instance.isInUse() ? "§cIn Use" : "§aAvailable";
+                String status = instance.isInUse() ? "§cIn Use" : instance.isResetting() ? "§eResetting" : "§aAvailable";
                 String gameInfo = instance.getCurrentGame() != null ? " (Game: " + instance.getCurrentGame().getId() + ")" : "";
                 player.sendMessage("§7- §f" + instance.getInstanceId() + " " + status + gameInfo);
             }
@@ -167,6 +185,7 @@ public class ArenaInstanceCommand implements CommandExecutor, TabCompleter {
             player.sendMessage("§6=== Template: " + template.getTemplateId() + " ===");
             player.sendMessage("§7Schematic: §f" + template.getSchematicName());
             player.sendMessage("§7Max Instances: §f" + template.getMaxInstances());
+            player.sendMessage("§7Idle Pool: §f" + template.getMinIdle() + "-" + template.getMaxIdle());
             Location loc = template.getBaseLocation();
             player.sendMessage("§7Base Location: §f" + loc.getBlockX() + ", " + loc.getBlockY() + ", " + loc.getBlockZ());
             
@@ -175,7 +194,7 @@ public class ArenaInstanceCommand implements CommandExecutor, TabCompleter {
         } else if (instance != null) {
             player.sendMessage("§6=== Instance: " + instance.getInstanceId() + " ===");
             player.sendMessage("§7Template: §f" + instance.getTemplate().getTemplateId());
-            player.sendMessage("§7Status: " + (instance.isInUse() ? "§cIn Use" : "§aAvailable"));
+            player.sendMessage("§7Status: " + (instance.isInUse() ? "§cIn Use" : instance.isResetting() ? "§eResetting" : "§aAvailable"));
             Location loc = instance.getInstanceLocation();
             player.sendMessage("§7Location: §f" + loc.getBlockX() + ", " + loc.getBlockY() + ", " + loc.getBlockZ());
             
@@ -207,8 +226,13 @@ public class ArenaInstanceCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
+        if (instance.isResetting()) {
+            player.sendMessage("§eInstance is already being reset.");
+            return;
+        }
+        
         arenaInstanceManager.resetArena(instance);
-        player.sendMessage("§aReset instance '" + instanceId + "'!");
+        player.sendMessage("§aQueued reset for instance '" + instanceId + "'!");
     }
     
     private void handleRemove(Player player, String[] args) {
@@ -250,7 +274,7 @@ public class ArenaInstanceCommand implements CommandExecutor, TabCompleter {
     
     private void sendHelp(Player player) {
         player.sendMessage("§6=== Arena Instance Commands ===");
-        player.sendMessage("§7/arenainstance register <templateId> <schematicName> <maxInstances> [arenaId] §f- Register template");
+        player.sendMessage("§7/arenainstance register <templateId> <schematicName> <maxInstances> [arenaId] [minIdle] [maxIdle] §f- Register template");
         player.sendMessage("§7/arenainstance create <templateId> §f- Create instance");
         player.sendMessage("§7/arenainstance list [templateId] §f- List templates/instances");
         player.sendMessage("§7/arenainstance info [templateId/instanceId] §f- Show detailed info");
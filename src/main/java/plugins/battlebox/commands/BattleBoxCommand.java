@@ -79,15 +79,16 @@ public class BattleBoxCommand implements CommandExecutor, TabCompleter {
         }
 
         String arenaName = args[1];
-        // Try to join existing game first, create new one if none exists
-        if (!gameService.joinOrCreateGame(player, arenaName)) {
-            player.sendMessage(ChatColor.RED + "Failed to join/create game for arena: " + arenaName);
-        }
+        // Try to join existing game first, create new one if none exists.
+        // Placement happens next tick, and GameService reports the outcome either way.
+        gameService.joinOrCreateGame(player, arenaName);
     }
 
     private void handleLeave(Player player) {
         if (gameService.leaveGame(player)) {
             player.sendMessage(ChatColor.YELLOW + "You left the game.");
+        } else if (gameService.leaveQueue(player)) {
+            player.sendMessage(ChatColor.YELLOW + "You left the arena queue.");
         } else {
             player.sendMessage(ChatColor.RED + "You are not in a game!");
         }
@@ -188,9 +189,7 @@ public class BattleBoxCommand implements CommandExecutor, TabCompleter {
                 }
                 try {
                     float volume = Float.parseFloat(args[2]);
-                    MusicService.MusicPreference pref = musicService.getPlayerPreference(player);
-                    pref.setMusicVolume(volume);
-                    musicService.updatePlayerPreference(player, pref);
+                    musicService.setPlayerMusicVolume(player, volume);
                     player.sendMessage(ChatColor.YELLOW + "Music volume set to " + ChatColor.AQUA + volume);
                 } catch (NumberFormatException e) {
                     player.sendMessage(ChatColor.RED + "Invalid volume. Use a number between 0.0 and 1.0");
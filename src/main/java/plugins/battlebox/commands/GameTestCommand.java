@@ -6,6 +6,7 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
+import plugins.battlebox.arena.RuntimeArena;
 import plugins.battlebox.game.Game;
 import plugins.battlebox.game.GameManager;
 import plugins.battlebox.managers.ArenaManager;
@@ -75,13 +76,7 @@ public class GameTestCommand implements CommandExecutor, TabCompleter {
         }
 
         // Check if arena exists
-        ArenaConfig arena = null;
-        for (ArenaConfig a : arenaManager.getArenas()) {
-            if (a.id.equals(arenaName)) {
-                arena = a;
-                break;
-            }
-        }
+        ArenaConfig arena = arenaManager.getArena(arenaName);
 
         if (arena == null) {
             player.sendMessage(ChatColor.RED + "Arena '" + arenaName + "' not found!");
@@ -90,6 +85,7 @@ public class GameTestCommand implements CommandExecutor, TabCompleter {
 
         Game game = new Game(gameName, arenaName);
         gameManager.createGame(gameName, game);
+        gameManager.indexArena(game, arenaManager.getRuntimeArena(arenaName));
 
         player.sendMessage(ChatColor.GREEN + "Created game '" + gameName + "' in arena '" + arenaName + "'!");
     }
@@ -184,13 +180,7 @@ public class GameTestCommand implements CommandExecutor, TabCompleter {
         }
 
         // Get arena config
-        ArenaConfig arena = null;
-        for (ArenaConfig a : arenaManager.getArenas()) {
-            if (a.id.equals(game.getArenaId())) {
-                arena = a;
-                break;
-            }
-        }
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
 
         if (arena == null) {
             player.sendMessage(ChatColor.RED + "Arena configuration not found!");
@@ -230,13 +220,7 @@ public class GameTestCommand implements CommandExecutor, TabCompleter {
         }
 
         // Get arena config
-        ArenaConfig arena = null;
-        for (ArenaConfig a : arenaManager.getArenas()) {
-            if (a.id.equals(game.getArenaId())) {
-                arena = a;
-                break;
-            }
-        }
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
 
         if (arena == null) {
             player.sendMessage(ChatColor.RED + "Arena configuration not found!");
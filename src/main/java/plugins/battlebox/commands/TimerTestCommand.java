@@ -10,6 +10,7 @@ import org.bukkit.entity.Player;
 import plugins.battlebox.BattleBox;
 import plugins.battlebox.game.Game;
 import plugins.battlebox.game.GameManager;
+import plugins.battlebox.managers.TimerKey;
 import plugins.battlebox.managers.TimerManager;
 
 import java.util.ArrayList;
@@ -78,6 +79,12 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
             case "remaining":
                 handleRemainingCommand(player, args);
                 break;
+            case "pause":
+                handlePauseCommand(player, args);
+                break;
+            case "resume":
+                handleResumeCommand(player, args);
+                break;
             case "help":
                 sendHelpMessage(player);
                 break;
@@ -104,7 +111,7 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
             }
             
             String title = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : null;
-            String timerId = "test_" + player.getName();
+            TimerKey timerId = TimerKey.of(player.getName(), TimerKey.Phase.TEST);
             
             Runnable onComplete = () -> {
                 player.sendMessage(ChatColor.GREEN + "Timer '" + timerId + "' completed!");
@@ -134,7 +141,7 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
             }
             
             String title = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : null;
-            String timerId = "global_" + System.currentTimeMillis();
+            TimerKey timerId = TimerKey.of(String.valueOf(System.currentTimeMillis()), TimerKey.Phase.GLOBAL);
             
             Runnable onComplete = () -> {
                 Bukkit.broadcastMessage(ChatColor.GREEN + "Global timer completed!");
@@ -196,13 +203,14 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
         }
         
         String timerId = args[1];
+        TimerKey key = TimerKey.parse(timerId);
         
-        if (!timerManager.isTimerRunning(timerId)) {
+        if (key == null || !timerManager.isTimerRunning(key)) {
             player.sendMessage(ChatColor.RED + "Timer '" + timerId + "' is not running!");
             return;
         }
         
-        timerManager.stopTimer(timerId);
+        timerManager.stopTimer(key);
         player.sendMessage(ChatColor.GREEN + "Stopped timer: " + timerId);
     }
     
@@ -226,7 +234,8 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
         }
         
         String timerId = args[1];
-        int remaining = timerManager.getRemainingTime(timerId);
+        TimerKey key = TimerKey.parse(timerId);
+        int remaining = key != null ? timerManager.getRemainingTime(key) : -1;
         
         if (remaining == -1) {
             player.sendMessage(ChatColor.RED + "Timer '" + timerId + "' is not running!");
@@ -235,6 +244,40 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
         }
     }
     
+    private void handlePauseCommand(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage(ChatColor.RED + "Usage: /timertest pause <timerId>");
+            return;
+        }
+        
+        String timerId = args[1];
+        TimerKey key = TimerKey.parse(timerId);
+        
+        if (key == null || !timerManager.pauseTimer(key)) {
+            player.sendMessage(ChatColor.RED + "Timer '" + timerId + "' is not running!");
+            return;
+        }
+        
+        player.sendMessage(ChatColor.GREEN + "Paused timer: " + timerId);
+    }
+    
+    private void handleResumeCommand(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage(ChatColor.RED + "Usage: /timertest resume <timerId>");
+            return;
+        }
+        
+        String timerId = args[1];
+        TimerKey key = TimerKey.parse(timerId);
+        
+        if (key == null || !timerManager.resumeTimer(key)) {
+            player.sendMessage(ChatColor.RED + "Timer '" + timerId + "' is not paused!");
+            return;
+        }
+        
+        player.sendMessage(ChatColor.GREEN + "Resumed timer: " + timerId);
+    }
+    
     private void sendHelpMessage(Player player) {
         player.sendMessage(ChatColor.GOLD + "=== Timer Test Commands ===");
         player.sendMessage(ChatColor.YELLOW + "/timertest start <seconds> [title]" + ChatColor.WHITE + " - Start personal timer");
@@ -244,6 +287,8 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(ChatColor.YELLOW + "/timertest stopall" + ChatColor.WHITE + " - Stop all timers");
         player.sendMessage(ChatColor.YELLOW + "/timertest status" + ChatColor.WHITE + " - Show timer status");
         player.sendMessage(ChatColor.YELLOW + "/timertest remaining <timerId>" + ChatColor.WHITE + " - Check remaining time");
+        player.sendMessage(ChatColor.YELLOW + "/timertest pause <timerId>" + ChatColor.WHITE + " - Pause a timer");
+        player.sendMessage(ChatColor.YELLOW + "/timertest resume <timerId>" + ChatColor.WHITE + " - Resume a paused timer");
         player.sendMessage(ChatColor.YELLOW + "/timertest help" + ChatColor.WHITE + " - Show this help");
     }
     
@@ -255,7 +300,7 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 1) {
             // Subcommands
-            List<String> subcommands = Arrays.asList("start", "global", "game", "stop", "stopall", "status", "remaining", "help");
+            List<String> subcommands = Arrays.asList("start", "global", "game", "stop", "stopall", "status", "remaining", "pause", "resume", "help");
             String input = args[0].toLowerCase();
             
             for (String subcommand : subcommands) {
@@ -273,7 +318,8 @@ public class TimerTestCommand implements CommandExecutor, TabCompleter {
                 for (String gameId : gameManager.getActiveGameIds()) {
                     completions.add(gameId);
                 }
-            } else if ("stop".equals(subcommand) || "remaining".equals(subcommand)) {
+            } else if ("stop".equals(subcommand) || "remaining".equals(subcommand)
+                    || "pause".equals(subcommand) || "resume".equals(subcommand)) {
                 // Suggest timer IDs (basic ones)
                 if (sender instanceof Player) {
                     Player player = (Player) sender;
@@ -0,0 +1,174 @@
+package plugins.battlebox.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+/**
+ * Players waiting for an arena instance while every instance of the arena's
+ * template is busy. Each arena's line is bounded, so a rush is turned away
+ * once it is full instead of growing the wait without limit. Wait estimates
+ * come from the lengths of recent matches. Main thread only.
+ */
+public class AdmissionQueue {
+    public static final int MAX_WAITING = 64; // per arena
+    private static final int DURATION_SAMPLES = 16;
+
+    private final Map<String, ArrayDeque<UUID>> waiting = new HashMap<>(); // arena id -> players, first in line first
+    private final Map<UUID, String> queuedArena = new HashMap<>();
+    private final long[] durations = new long[DURATION_SAMPLES]; // recent match lengths in ms, ring buffer
+    private final long defaultDurationMillis;
+    private int durationCount;
+    private int durationNext;
+
+    public AdmissionQueue(long defaultDurationMillis) {
+        this.defaultDurationMillis = defaultDurationMillis;
+    }
+
+    /**
+     * Put a player at the back of an arena's line.
+     *
+     * @return their 1-based position, or -1 if the line is full
+     */
+    public int offer(UUID playerId, String arenaId) {
+        if (queuedArena.containsKey(playerId)) {
+            return getPosition(playerId);
+        }
+        ArrayDeque<UUID> line = waiting.computeIfAbsent(arenaId, id -> new ArrayDeque<>());
+        if (line.size() >= MAX_WAITING) {
+            return -1;
+        }
+        line.addLast(playerId);
+        queuedArena.put(playerId, arenaId);
+        return line.size();
+    }
+
+    /**
+     * Put players back at the front of the line, keeping their order. For
+     * promotions that didn't go through.
+     */
+    public void offerFirst(List<Player> players, String arenaId) {
+        ArrayDeque<UUID> line = waiting.computeIfAbsent(arenaId, id -> new ArrayDeque<>());
+        for (int i = players.size() - 1; i >= 0; i--) {
+            UUID playerId = players.get(i).getUniqueId();
+            if (queuedArena.putIfAbsent(playerId, arenaId) == null) {
+                line.addFirst(playerId);
+            }
+        }
+    }
+
+    public boolean remove(UUID playerId) {
+        String arenaId = queuedArena.remove(playerId);
+        if (arenaId == null) {
+            return false;
+        }
+        ArrayDeque<UUID> line = waiting.get(arenaId);
+        line.remove(playerId);
+        if (line.isEmpty()) {
+            waiting.remove(arenaId);
+        }
+        return true;
+    }
+
+    public boolean isQueued(UUID playerId) {
+        return queuedArena.containsKey(playerId);
+    }
+
+    public boolean hasWaiting(String arenaId) {
+        return waiting.containsKey(arenaId);
+    }
+
+    /**
+     * Ids of arenas with anyone in line
+     */
+    public List<String> getWaitingArenas() {
+        return new ArrayList<>(waiting.keySet());
+    }
+
+    /**
+     * 1-based position in line, or 0 if not queued
+     */
+    public int getPosition(UUID playerId) {
+        String arenaId = queuedArena.get(playerId);
+        if (arenaId == null) {
+            return 0;
+        }
+        int position = 1;
+        for (UUID queued : waiting.get(arenaId)) {
+            if (queued.equals(playerId)) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    /**
+     * Take up to max players from the front of an arena's line. Players who
+     * went offline while waiting are dropped.
+     */
+    public List<Player> poll(String arenaId, int max) {
+        List<Player> players = new ArrayList<>(max);
+        ArrayDeque<UUID> line = waiting.get(arenaId);
+        while (line != null && !line.isEmpty() && players.size() < max) {
+            UUID playerId = line.pollFirst();
+            queuedArena.remove(playerId);
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null && player.isOnline()) {
+                players.add(player);
+            }
+        }
+        if (line != null && line.isEmpty()) {
+            waiting.remove(arenaId);
+        }
+        return players;
+    }
+
+    /**
+     * Online players still in an arena's line, first in line first
+     */
+    public List<Player> getWaitingPlayers(String arenaId) {
+        List<Player> players = new ArrayList<>();
+        ArrayDeque<UUID> line = waiting.get(arenaId);
+        if (line == null) {
+            return players;
+        }
+        for (UUID playerId : line) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    public void recordMatchDuration(long millis) {
+        durations[durationNext] = millis;
+        durationNext = (durationNext + 1) % DURATION_SAMPLES;
+        durationCount = Math.min(durationCount + 1, DURATION_SAMPLES);
+    }
+
+    /**
+     * Rough wait for a place in line. Players leave in games of playersPerGame,
+     * and parallelGames games finish in turn, each taking about as long as the
+     * recent average.
+     */
+    public long estimateWaitSeconds(int position, int playersPerGame, int parallelGames) {
+        long average = defaultDurationMillis;
+        if (durationCount > 0) {
+            long total = 0;
+            for (int i = 0; i < durationCount; i++) {
+                total += durations[i];
+            }
+            average = total / durationCount;
+        }
+        long games = (position + playersPerGame - 1) / playersPerGame;
+        return (games * average / Math.max(1, parallelGames) + 999) / 1000;
+    }
+}
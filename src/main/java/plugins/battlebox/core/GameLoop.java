@@ -0,0 +1,213 @@
+package plugins.battlebox.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import plugins.battlebox.game.Game;
+import plugins.battlebox.game.GameManager;
+import plugins.battlebox.game.GamePhase;
+import plugins.battlebox.managers.TimerManager;
+
+/**
+ * Advances every running game through its {@link GamePhase}s from a single
+ * per-tick task. Each tick the loop checks each game's phase deadline, updates
+ * its countdown once a second and hands games whose phase ran out to the
+ * phase-end handler. Time spent per game is recorded so slow games show up.
+ * Main thread only.
+ */
+public class GameLoop {
+    private static final long TICKS_PER_SECOND = 20L;
+    private static final long SLOW_TICK_NANOS = 5_000_000L; // warn when one pass over all games takes longer
+
+    private final JavaPlugin plugin;
+    private final GameManager gameManager;
+    private final TimerManager timerManager;
+    private final BiConsumer<Game, GamePhase> onPhaseEnd;
+    private final Map<Game, PhaseClock> clocks = new LinkedHashMap<>();
+    private final List<Game> due = new ArrayList<>();
+    private BukkitTask task;
+    private long currentTick;
+
+    /**
+     * A game's position in its current phase and what running it has cost
+     */
+    private static class PhaseClock {
+        private GamePhase phase;
+        private long endTick;
+        private int shownSeconds = -1;
+        private long totalNanos;
+        private long maxNanos;
+        private long ticks;
+    }
+
+    public GameLoop(JavaPlugin plugin, GameManager gameManager, TimerManager timerManager,
+            BiConsumer<Game, GamePhase> onPhaseEnd) {
+        this.plugin = plugin;
+        this.gameManager = gameManager;
+        this.timerManager = timerManager;
+        this.onPhaseEnd = onPhaseEnd;
+    }
+
+    /**
+     * Put a game into a phase, starting the phase's countdown from the top
+     */
+    public void enter(Game game, GamePhase phase) {
+        PhaseClock clock = clocks.computeIfAbsent(game, g -> new PhaseClock());
+        clock.phase = phase;
+        clock.endTick = phase.isTimed() ? currentTick + phase.getDurationTicks() : Long.MAX_VALUE;
+        clock.shownSeconds = -1;
+        game.setState(phase.getState());
+
+        if (phase.isTimed()) {
+            showCountdown(game, clock);
+        }
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stop driving a game and clear its countdown
+     */
+    public void remove(Game game) {
+        if (clocks.remove(game) != null) {
+            timerManager.clearCountdown(game.getPlayers());
+        }
+    }
+
+    /**
+     * The game's current phase, or null if the loop isn't driving it
+     */
+    public GamePhase getPhase(Game game) {
+        PhaseClock clock = clocks.get(game);
+        return clock != null ? clock.phase : null;
+    }
+
+    /**
+     * Whole seconds left in the game's phase, or -1 if untimed or not driven
+     */
+    public int getRemainingSeconds(Game game) {
+        PhaseClock clock = clocks.get(game);
+        if (clock == null || !clock.phase.isTimed()) {
+            return -1;
+        }
+        return secondsLeft(clock);
+    }
+
+    /**
+     * Average nanoseconds the loop spends on the game per tick, or -1 if not driven
+     */
+    public long getAverageTickNanos(Game game) {
+        PhaseClock clock = clocks.get(game);
+        return clock != null && clock.ticks > 0 ? clock.totalNanos / clock.ticks : -1;
+    }
+
+    /**
+     * Longest single tick the loop has spent on the game, or -1 if not driven
+     */
+    public long getMaxTickNanos(Game game) {
+        PhaseClock clock = clocks.get(game);
+        return clock != null ? clock.maxNanos : -1;
+    }
+
+    public int getGameCount() {
+        return clocks.size();
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        clocks.clear();
+    }
+
+    private void tick() {
+        currentTick++;
+        long passStart = System.nanoTime();
+
+        // Countdowns first; phase changes run afterwards since they add and remove games
+        Iterator<Map.Entry<Game, PhaseClock>> it = clocks.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Game, PhaseClock> entry = it.next();
+            Game game = entry.getKey();
+            PhaseClock clock = entry.getValue();
+            if (gameManager.getGame(game.getId()) != game) {
+                it.remove(); // removed without going through the loop
+                continue;
+            }
+            if (!clock.phase.isTimed()) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            if (currentTick >= clock.endTick) {
+                due.add(game);
+            } else {
+                showCountdown(game, clock);
+            }
+            record(clock, System.nanoTime() - start);
+        }
+
+        try {
+            for (Game game : due) {
+                PhaseClock clock = clocks.get(game);
+                if (clock == null || currentTick < clock.endTick) {
+                    continue; // removed or moved on by an earlier handler
+                }
+                long start = System.nanoTime();
+                GamePhase ended = clock.phase;
+                clock.endTick = Long.MAX_VALUE; // don't fire again unless the handler enters a new phase
+                try {
+                    onPhaseEnd.accept(game, ended);
+                } catch (RuntimeException e) {
+                    plugin.getLogger().severe("Error ending phase " + ended + " of game " + game.getId() + ": "
+                            + e.getMessage());
+                    e.printStackTrace();
+                }
+                record(clock, System.nanoTime() - start);
+            }
+        } finally {
+            due.clear();
+        }
+
+        long elapsed = System.nanoTime() - passStart;
+        if (elapsed > SLOW_TICK_NANOS) {
+            plugin.getLogger().warning("Game loop tick took " + (elapsed / 1_000_000L) + "ms for "
+                    + clocks.size() + " games");
+        }
+
+        if (clocks.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void showCountdown(Game game, PhaseClock clock) {
+        int seconds = secondsLeft(clock);
+        if (seconds != clock.shownSeconds) {
+            clock.shownSeconds = seconds;
+            timerManager.showCountdown(game.getPlayers(), clock.phase.getTitle(), seconds);
+        }
+    }
+
+    private int secondsLeft(PhaseClock clock) {
+        return (int) ((clock.endTick - currentTick + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND);
+    }
+
+    private static void record(PhaseClock clock, long nanos) {
+        clock.totalNanos += nanos;
+        clock.ticks++;
+        if (nanos > clock.maxNanos) {
+            clock.maxNanos = nanos;
+        }
+    }
+}
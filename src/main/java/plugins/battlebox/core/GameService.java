@@ -1,6 +1,5 @@
 package plugins.battlebox.core;
 
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Color;
 import org.bukkit.FireworkEffect;
@@ -8,23 +7,30 @@ import org.bukkit.Location;
 import org.bukkit.entity.Firework;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.meta.FireworkMeta;
-import org.bukkit.scheduler.BukkitTask;
 
-import config.ArenaConfig;
+import plugins.battlebox.arena.ArenaTemplate;
+import plugins.battlebox.arena.RuntimeArena;
 import plugins.battlebox.game.Game;
 import plugins.battlebox.game.GameManager;
+import plugins.battlebox.game.GamePhase;
 import plugins.battlebox.game.GameState;
 import plugins.battlebox.managers.ArenaManager;
+import plugins.battlebox.managers.TimerKey;
 import plugins.battlebox.managers.TimerManager;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.HashSet;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Core service for managing game lifecycle and operations.
- * Handles game creation, player joining, and game flow.
+ * Handles game creation, player joining, and game flow. Phase timing is left
+ * to the {@link GameLoop}; this class decides what happens when a phase ends.
  */
 public class GameService {
 
@@ -33,11 +39,13 @@ public class GameService {
     private final TimerManager timerManager;
     private final PlayerService playerService;
     private final MusicService musicService;
+    private final GameLoop gameLoop;
+    private final JoinQueue joinQueue;
+    private final RatingStore ratingStore;
+    private final AdmissionQueue admissionQueue; // players waiting for a free arena instance
+    private final Map<String, Long> gameOpenedAt = new HashMap<>(); // game id -> when it was opened, ms
     private final org.bukkit.plugin.java.JavaPlugin plugin;
 
-    // Victory fireworks management
-    private final Map<String, BukkitTask> victoryFireworksMap = new ConcurrentHashMap<>();
-
     public GameService(GameManager gameManager, ArenaManager arenaManager,
             TimerManager timerManager, PlayerService playerService, MusicService musicService,
             org.bukkit.plugin.java.JavaPlugin plugin) {
@@ -47,38 +55,135 @@ public class GameService {
         this.playerService = playerService;
         this.musicService = musicService;
         this.plugin = plugin;
+        this.gameLoop = new GameLoop(plugin, gameManager, timerManager, this::onPhaseEnd);
+        this.joinQueue = new JoinQueue(plugin, this::joinBatch);
+        this.ratingStore = new RatingStore(plugin, new java.io.File(plugin.getDataFolder(), "ratings.dat"));
+        ratingStore.loadAsync();
+        gameManager.setRatingLookup(ratingStore::getRating);
+        this.admissionQueue = new AdmissionQueue(defaultMatchMillis());
+        gameManager.getArenaInstanceManager().setCapacityListener(this::admitWaiting);
+    }
+
+    /**
+     * Length of a match with every timed phase run to the end, for wait
+     * estimates before any match has finished
+     */
+    private static long defaultMatchMillis() {
+        long seconds = 0;
+        for (GamePhase phase : GamePhase.values()) {
+            if (phase.isTimed()) {
+                seconds += phase.getSeconds();
+            }
+        }
+        return seconds * 1000L;
+    }
+
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
+    public RatingStore getRatingStore() {
+        return ratingStore;
+    }
+
+    public void shutdown() {
+        // Pastes finished during shutdown must not open new games
+        gameManager.getArenaInstanceManager().setCapacityListener(templateId -> { });
+        joinQueue.shutdown();
+        gameLoop.shutdown();
+        ratingStore.flush();
+    }
+
+    /**
+     * Move a game on once the loop says its current phase has run out
+     */
+    private void onPhaseEnd(Game game, GamePhase phase) {
+        switch (phase) {
+            case LOBBY_COUNTDOWN -> startKitSelection(game);
+            case KIT_SELECTION -> startBattle(game);
+            case STARTING -> beginFighting(game);
+            case BATTLE -> endGame(game);
+            case VICTORY -> cleanupGame(game);
+            case WAITING -> {
+                // Untimed; left when the second player joins
+            }
+        }
     }
 
     /**
      * Create and start a new game
      */
     public boolean createGame(Player creator, String arenaId) {
-        ArenaConfig arena = arenaManager.getArena(arenaId);
-        if (arena == null) {
-            VirtualPlayerUtil.safeSendMessage(creator, ChatColor.RED + "Arena '" + arenaId + "' not found!");
+        if (gameManager.isInGame(creator)) {
+            VirtualPlayerUtil.safeSendMessage(creator,
+                    ChatColor.RED + "You are already in a game! Use /battlebox leave first.");
             return false;
         }
 
-        if (!isArenaComplete(arena)) {
-            VirtualPlayerUtil.safeSendMessage(creator,
-                    ChatColor.RED + "Arena is incomplete. Use /arena info " + arenaId + " to see what's missing.");
+        RuntimeArena arena = arenaManager.getRuntimeArena(arenaId);
+        String problem = checkArena(arena, arenaId);
+        if (problem != null) {
+            VirtualPlayerUtil.safeSendMessage(creator, problem);
+            return false;
+        }
+
+        Game game = openGame(arena, arenaId);
+        if (game == null) {
+            VirtualPlayerUtil.safeSendMessage(creator, ChatColor.RED + "Every copy of this arena is in use. Use "
+                    + "/battlebox join " + arenaId + " to wait for one.");
             return false;
         }
+        String gameId = game.getId();
+        if (!joinGame(creator, gameId)) {
+            discardGame(game);
+            return false;
+        }
+        VirtualPlayerUtil.safeSendMessage(creator, ChatColor.GREEN + "Game created! Waiting for more players...");
+        return true;
+    }
+
+    /**
+     * Why players can't play in an arena, or null if they can
+     */
+    private String checkArena(RuntimeArena arena, String arenaId) {
+        if (arena == null) {
+            return ChatColor.RED + "Arena '" + arenaId + "' not found!";
+        }
+        if (!arena.isComplete()) {
+            return ChatColor.RED + "Arena is incomplete. Use /arena info " + arenaId + " to see what's missing.";
+        }
+        return null;
+    }
 
-        String gameId = "game_" + System.currentTimeMillis();
+    /**
+     * Register a new, empty game on an arena and start its waiting phase.
+     * Instanced arenas need a free instance; returns null if none is.
+     */
+    private Game openGame(RuntimeArena arena, String arenaId) {
+        String gameId = gameManager.nextGameId();
         Game game = new Game(gameId, arenaId);
+        String templateId = gameManager.getArenaInstanceManager().findTemplateForArena(arenaId);
+        if (templateId != null && !gameManager.assignInstance(game, templateId, arena)) {
+            return null;
+        }
         gameManager.createGame(gameId, game);
+        gameOpenedAt.put(gameId, System.currentTimeMillis());
+        gameManager.indexArena(game, arenaManager.getRuntimeArena(game));
+        gameLoop.enter(game, GamePhase.WAITING);
 
         // Start music for the new game
         musicService.startGameMusic(game);
+        return game;
+    }
 
-        if (!joinGame(creator, gameId)) {
-            gameManager.removeGame(gameId);
-            musicService.stopGameMusic(gameId);
-            return false;
-        }
-        VirtualPlayerUtil.safeSendMessage(creator, ChatColor.GREEN + "Game created! Waiting for more players...");
-        return true;
+    /**
+     * Drop a game that was opened but never got going
+     */
+    private void discardGame(Game game) {
+        gameLoop.remove(game);
+        gameManager.removeGame(game.getId());
+        musicService.stopGameMusic(game.getId());
+        gameOpenedAt.remove(game.getId());
     }
 
     /**
@@ -91,93 +196,257 @@ public class GameService {
             return false;
         }
 
+        Game currentGame = gameManager.getPlayerGame(player);
+        if (currentGame != null && currentGame != game) {
+            VirtualPlayerUtil.safeSendMessage(player,
+                    ChatColor.RED + "You are already in a game! Use /battlebox leave first.");
+            return false;
+        }
+
         if (!game.addPlayer(player)) {
             VirtualPlayerUtil.safeSendMessage(player, ChatColor.RED + "Cannot join game (possibly full)");
             return false;
         }
 
-        playerService.setupPlayerForGame(player, game);
+        welcomePlayers(game, List.of(player));
+        return true;
+    }
 
-        // Handle music for player joining
-        musicService.onPlayerJoinGame(player, game);
+    /**
+     * Queue a player to join an open game for the given arena, or a new one if
+     * none has room. Requests made in the same tick are placed together by
+     * {@link #joinBatch}, which tells the player how it went.
+     *
+     * @return false if the request was turned down; the player has been told why
+     */
+    public boolean joinOrCreateGame(Player player, String arenaId) {
+        if (gameManager.isInGame(player)) {
+            VirtualPlayerUtil.safeSendMessage(player,
+                    ChatColor.RED + "You are already in a game! Use /battlebox leave first.");
+            return false;
+        }
+        if (admissionQueue.isQueued(player.getUniqueId())) {
+            VirtualPlayerUtil.safeSendMessage(player, ChatColor.YELLOW + "You are already #"
+                    + admissionQueue.getPosition(player.getUniqueId()) + " in line for an arena.");
+            return true;
+        }
+        if (!joinQueue.offer(player, arenaId)) {
+            VirtualPlayerUtil.safeSendMessage(player, ChatColor.YELLOW + "You are already joining a game...");
+        }
+        return true;
+    }
 
-        // Handle game state based on current state and player count
-        handlePlayerJoinGameFlow(game, player);
+    /**
+     * Place one tick's worth of join requests for an arena. Players fill the
+     * fullest open games first and new games are opened only for the
+     * overflow. Each game then gets its arrivals teleported together and its
+     * lobby countdown started at most once.
+     * Players are placed strongest first, so similar ratings share a game and
+     * each goes to the weaker team of its game.
+     */
+    private void joinBatch(String arenaId, List<Player> requested) {
+        placePlayers(arenaId, requested, false);
+    }
 
+    /**
+     * Put players into open games, opening new ones as needed. When no arena
+     * instance is free, newcomers join the admission queue. Promoted players
+     * who still can't be placed go back to the front of it.
+     *
+     * @return false if promoted players had to go back in line
+     */
+    private boolean placePlayers(String arenaId, List<Player> requested, boolean promoted) {
+        RuntimeArena arena = arenaManager.getRuntimeArena(arenaId);
+        String problem = checkArena(arena, arenaId);
+        if (problem != null) {
+            for (Player player : requested) {
+                VirtualPlayerUtil.safeSendMessage(player, problem);
+            }
+            return true;
+        }
+
+        requested.sort(Comparator.comparingInt((Player player) -> ratingStore.getRating(player.getUniqueId()))
+                .reversed());
+
+        Map<Game, List<Player>> arrivals = new LinkedHashMap<>();
+        Set<Game> opened = new HashSet<>();
+        List<Player> bounced = new ArrayList<>();
+        for (Player player : requested) {
+            // They may have logged out or joined elsewhere since asking
+            if (!player.isOnline() || gameManager.isInGame(player)) {
+                continue;
+            }
+
+            Game game = findJoinableGame(arenaId);
+            if (game == null) {
+                // Newcomers don't take an instance ahead of players already in line
+                game = promoted || !admissionQueue.hasWaiting(arenaId) ? openGame(arena, arenaId) : null;
+                if (game == null) {
+                    if (promoted) {
+                        bounced.add(player);
+                    } else {
+                        waitForArena(player, arenaId);
+                    }
+                    continue;
+                }
+                opened.add(game);
+            }
+            if (game.addPlayer(player)) {
+                arrivals.computeIfAbsent(game, g -> new ArrayList<>()).add(player);
+            } else {
+                VirtualPlayerUtil.safeSendMessage(player, ChatColor.RED + "Cannot join game (possibly full)");
+            }
+        }
+
+        for (Game game : opened) {
+            if (game.getPlayerCount() == 0) {
+                // Everyone it was opened for dropped out
+                discardGame(game);
+            }
+        }
+        for (Map.Entry<Game, List<Player>> entry : arrivals.entrySet()) {
+            welcomePlayers(entry.getKey(), entry.getValue());
+            if (opened.contains(entry.getKey())) {
+                VirtualPlayerUtil.safeSendMessage(entry.getValue().get(0),
+                        ChatColor.GREEN + "Game created! Waiting for more players...");
+            }
+        }
+
+        if (!bounced.isEmpty()) {
+            admissionQueue.offerFirst(bounced, arenaId);
+            return false;
+        }
         return true;
     }
 
     /**
-     * Find and join an existing game for the given arena, or create a new one if
-     * none exists
+     * Put a player in line for an arena instance, or turn them away if the
+     * line is full
      */
-    public boolean joinOrCreateGame(Player player, String arenaId) {
-        // First, try to find an existing game for this arena
-        Game existingGame = findJoinableGame(arenaId);
+    private void waitForArena(Player player, String arenaId) {
+        int position = admissionQueue.offer(player.getUniqueId(), arenaId);
+        if (position < 0) {
+            VirtualPlayerUtil.safeSendMessage(player,
+                    ChatColor.RED + "Every copy of this arena is in use and the queue is full. Try again later.");
+            return;
+        }
+        VirtualPlayerUtil.safeSendMessage(player, ChatColor.YELLOW + "Every copy of this arena is in use. "
+                + describePosition(arenaId, position));
+    }
 
-        if (existingGame != null) {
-            return joinGame(player, existingGame.getId());
-        } else {
-            // No joinable game found, create a new one
-            return createGame(player, arenaId);
+    private String describePosition(String arenaId, int position) {
+        String templateId = gameManager.getArenaInstanceManager().findTemplateForArena(arenaId);
+        ArenaTemplate template = templateId != null ? gameManager.getArenaInstanceManager().getTemplate(templateId)
+                : null;
+        int parallelGames = template != null ? template.getMaxInstances() : 1;
+        long seconds = admissionQueue.estimateWaitSeconds(position, Game.MAX_PLAYERS, parallelGames);
+        return "You are #" + position + " in line (about " + formatWait(seconds) + ").";
+    }
+
+    private static String formatWait(long seconds) {
+        return seconds < 60 ? seconds + "s" : (seconds / 60) + "m " + (seconds % 60) + "s";
+    }
+
+    /**
+     * An instance of the template may have freed up: move players waiting
+     * for its arenas into games while instances last, then tell the rest
+     * where they now stand
+     */
+    private void admitWaiting(String templateId) {
+        for (String arenaId : admissionQueue.getWaitingArenas()) {
+            if (!templateId.equals(gameManager.getArenaInstanceManager().findTemplateForArena(arenaId))) {
+                continue;
+            }
+            while (admissionQueue.hasWaiting(arenaId)
+                    && gameManager.getArenaInstanceManager().hasCapacity(templateId)) {
+                List<Player> promoted = admissionQueue.poll(arenaId, Game.MAX_PLAYERS);
+                if (!placePlayers(arenaId, promoted, true)) {
+                    break;
+                }
+            }
+
+            List<Player> stillWaiting = admissionQueue.getWaitingPlayers(arenaId);
+            for (int i = 0; i < stillWaiting.size(); i++) {
+                VirtualPlayerUtil.safeSendMessage(stillWaiting.get(i),
+                        ChatColor.YELLOW + describePosition(arenaId, i + 1));
+            }
         }
     }
 
+    /**
+     * Take a player out of the admission queue
+     */
+    public boolean leaveQueue(Player player) {
+        return admissionQueue.remove(player.getUniqueId());
+    }
+
+    /**
+     * Set up players who were just added to a game
+     */
+    private void welcomePlayers(Game game, List<Player> joined) {
+        for (Player player : joined) {
+            playerService.setupPlayerForGame(player, game);
+
+            // Handle music for player joining
+            musicService.onPlayerJoinGame(player, game);
+        }
+
+        // Handle game state based on current state and player count
+        handlePlayerJoinGameFlow(game, joined);
+    }
+
     /**
      * Find a game that can be joined for the given arena
      */
     private Game findJoinableGame(String arenaId) {
-        for (Game game : gameManager.getActiveGames().values()) {
-            if (game.getArenaId().equals(arenaId) &&
-                    (game.getState() == GameState.WAITING || game.getState() == GameState.KIT_SELECTION) &&
-                    game.getPlayerCount() < 8) { // MAX_PLAYERS
-                return game;
-            }
-        }
-        return null;
+        return gameManager.findOpenGame(arenaId);
     }
 
     /**
-     * Handle game flow when a player joins
+     * Handle game flow when players join
      */
-    private void handlePlayerJoinGameFlow(Game game, Player player) {
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
+    private void handlePlayerJoinGameFlow(Game game, List<Player> joined) {
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
 
         if (game.getState() == GameState.WAITING) {
             // Teleport to waiting area (center of map)
-            playerService.teleportToWaitingArea(player, arena);
+            playerService.teleportToWaitingArea(joined, arena);
 
-            // If we now have 2 or more players, start the 30-second timer for kit selection
-            if (game.getPlayerCount() >= 2) {
+            // If we now have 2 or more players, start the countdown to kit selection.
+            // Later joins don't restart it.
+            if (game.getPlayerCount() >= 2 && gameLoop.getPhase(game) != GamePhase.LOBBY_COUNTDOWN) {
                 startWaitingTimer(game);
             }
         } else if (game.getState() == GameState.KIT_SELECTION) { // Game is already in kit selection, teleport to spawn
                                                                  // and give base kit
-            playerService.teleportToSpawn(player, game, arena);
-            playerService.giveBaseKit(player, game.getPlayerTeam(player));
-            VirtualPlayerUtil.safeSendMessage(player,
-                    ChatColor.YELLOW + "Kit selection is in progress! Choose your kit!");
+            for (Player player : joined) {
+                playerService.teleportToSpawn(player, game, arena);
+                playerService.giveBaseKit(player, game.getPlayerTeam(player));
+                VirtualPlayerUtil.safeSendMessage(player,
+                        ChatColor.YELLOW + "Kit selection is in progress! Choose your kit!");
+            }
         }
         // Note: Players cannot join during IN_PROGRESS or ENDING states
     }
 
     /**
-     * Start 30-second waiting timer before kit selection
+     * Start the waiting countdown before kit selection
      */
     private void startWaitingTimer(Game game) {
-        broadcastToGame(game, ChatColor.GREEN + "Minimum players reached! Kit selection starts in 30 seconds...");
+        broadcastToGame(game, ChatColor.GREEN + "Minimum players reached! Kit selection starts in "
+                + GamePhase.LOBBY_COUNTDOWN.getSeconds() + " seconds...");
         broadcastToGame(game, ChatColor.GRAY + "More players can still join (max 8 players)");
 
-        // 30-second timer before kit selection starts
-        timerManager.startTimer("waiting_" + game.getId(), game.getPlayers(), 30,
-                "WAITING FOR PLAYERS", () -> startKitSelection(game));
+        gameLoop.enter(game, GamePhase.LOBBY_COUNTDOWN);
     }
 
     /**
      * Start the actual battle phase
      */
     public void startBattle(Game game) {
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
+        // Rate the result against the teams as they start, so leaving early still counts
+        game.lockBattleTeams();
 
         // Teleport players to their battle positions
         for (Player player : game.getPlayers()) {
@@ -185,29 +454,36 @@ public class GameService {
         }
 
         // Brief countdown before setting to IN_PROGRESS
-        timerManager.startTimer("starting_" + game.getId(), game.getPlayers(), 5,
-                "GAME STARTING", () -> {
-                    game.setState(GameState.IN_PROGRESS);
-                    // Note: Music is already set to BATTLE in startKitSelection, no need to update
-                    // here
-
-                    // Start 2-minute game timer
-                    timerManager.startTimer("game_" + game.getId(), game.getPlayers(), 120,
-                            "BATTLE BOX", () -> endGame(game));
-
-                    broadcastToGame(game, ChatColor.GREEN + "BATTLE STARTED! Fill the center with your wool!");
-                });
+        gameLoop.enter(game, GamePhase.STARTING);
 
         broadcastToGame(game, ChatColor.YELLOW + "Get ready! Battle starting soon...");
     }
 
+    /**
+     * Open the battle once the starting countdown is over
+     */
+    private void beginFighting(Game game) {
+        // Sync the center grid with the world before scoring starts
+        game.reconcileCenterGrid(arenaManager.getRuntimeArena(game));
+        // Note: Music is already set to BATTLE in startKitSelection, no need to update
+        // here
+        gameLoop.enter(game, GamePhase.BATTLE);
+        timerManager.showGo(game.getPlayers());
+
+        broadcastToGame(game, ChatColor.GREEN + "BATTLE STARTED! Fill the center with your wool!");
+    }
+
     /**
      * End the game and determine winner
      */
     public void endGame(Game game) {
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
-        game.setState(GameState.ENDING);
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
+        // Entering the victory phase sets ENDING and replaces the battle countdown
+        gameLoop.enter(game, GamePhase.VICTORY);
+        // Catch any center edits the listeners didn't see before final scoring
+        game.reconcileCenterGrid(arena);
         game.calculateWinner(arena);
+        recordRatings(game);
         plugin.getLogger().info("Game " + game.getId() + " ended - starting victory phase");
 
         // Announce results immediately
@@ -216,11 +492,27 @@ public class GameService {
         // Start victory music and play victory sounds
         startVictoryPhase(game);
 
-        // Start 10-second victory timer before cleanup
-        timerManager.startTimer("victory_" + game.getId(), game.getPlayers(), 20,
-                "VICTORY", () -> cleanupGame(game));
+        broadcastToGame(game, ChatColor.YELLOW + "Returning to lobby in " + GamePhase.VICTORY.getSeconds()
+                + " seconds...");
+    }
 
-        broadcastToGame(game, ChatColor.YELLOW + "Returning to lobby in 10 seconds...");
+    /**
+     * Move ratings by the result. Games without a result (arena not set up)
+     * don't count.
+     */
+    private void recordRatings(Game game) {
+        double redScore;
+        if (game.isDraw()) {
+            redScore = 0.5;
+        } else if (game.getWinner() == Game.TeamColor.RED) {
+            redScore = 1.0;
+        } else if (game.getWinner() == Game.TeamColor.BLUE) {
+            redScore = 0.0;
+        } else {
+            return;
+        }
+        ratingStore.recordMatch(game.getBattleTeamPlayers(Game.TeamColor.RED),
+                game.getBattleTeamPlayers(Game.TeamColor.BLUE), redScore);
     }
 
     /**
@@ -246,34 +538,20 @@ public class GameService {
     }
 
     private void startKitSelection(Game game) {
-        game.setState(GameState.KIT_SELECTION);
+        gameLoop.enter(game, GamePhase.KIT_SELECTION);
 
         // Update music for state change - ONLY call this once per state change
         musicService.updateGameMusic(game);
 
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
 
         for (Player player : game.getPlayers()) {
             playerService.teleportToSpawn(player, game, arena);
             playerService.giveBaseKit(player, game.getPlayerTeam(player));
         }
 
-        // Give 30 seconds for kit selection
-        int duration = 30;
-
-        timerManager.startTimer("kit_" + game.getId(), game.getPlayers(), duration,
-                "KIT SELECTION", () -> startBattle(game));
-
-        broadcastToGame(game, ChatColor.YELLOW + "Select your kit! Battle starts in " + duration + " seconds!");
-    }
-
-    private boolean isArenaComplete(ArenaConfig arena) {
-        return arena.teamSpawns != null &&
-                arena.teamSpawns.redSpawn != null &&
-                arena.teamSpawns.blueSpawn != null &&
-                arena.teamSpawns.redTeleport != null &&
-                arena.teamSpawns.blueTeleport != null &&
-                arena.centerBox != null;
+        broadcastToGame(game, ChatColor.YELLOW + "Select your kit! Battle starts in "
+                + GamePhase.KIT_SELECTION.getSeconds() + " seconds!");
     }
 
     private void announceResults(Game game) {
@@ -293,12 +571,9 @@ public class GameService {
     }
 
     private void cleanupGame(Game game) {
-        // Stop all active timers for this game
-        timerManager.stopTimer("game_" + game.getId());
-        timerManager.stopTimer("kit_" + game.getId());
-        timerManager.stopTimer("waiting_" + game.getId());
-        timerManager.stopTimer("starting_" + game.getId());
-        timerManager.stopTimer("victory_" + game.getId());
+        // Stop driving the game and any timers it still has
+        gameLoop.remove(game);
+        timerManager.stopTimers(game.getId());
 
         // Clean up players FIRST (before removing game so we have access to game data)
         cleanupPlayers(game);
@@ -315,6 +590,10 @@ public class GameService {
 
         // Remove game LAST
         gameManager.removeGame(game.getId());
+        Long openedAt = gameOpenedAt.remove(game.getId());
+        if (openedAt != null) {
+            admissionQueue.recordMatchDuration(System.currentTimeMillis() - openedAt);
+        }
 
         // Final message to remaining players (if any)
         plugin.getLogger().info("Game cleanup completed for game " + game.getId());
@@ -324,7 +603,7 @@ public class GameService {
      * Reset the arena to a clean state after game ends
      */
     private void resetGameArena(Game game) {
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
         if (arena == null) {
             plugin.getLogger().warning("Cannot reset arena - arena config not found for game " + game.getId());
             return;
@@ -342,23 +621,23 @@ public class GameService {
     /**
      * Reset only the center 3x3 area blocks to clean state
      */
-    private void resetCenterBlocks(ArenaConfig arena) {
-        if (arena.centerBox == null) {
+    private void resetCenterBlocks(RuntimeArena arena) {
+        if (!arena.hasCenter()) {
             plugin.getLogger().warning("Cannot reset center blocks - centerBox is null");
             return;
         }
 
-        org.bukkit.World world = org.bukkit.Bukkit.getWorld(arena.world);
+        org.bukkit.World world = arena.getWorld();
         if (world == null) {
-            plugin.getLogger().warning("Cannot reset center blocks - world '" + arena.world + "' not found");
+            plugin.getLogger().warning("Cannot reset center blocks - world '" + arena.getWorldName() + "' not found");
             return;
         }
 
-        int minX = Math.min(arena.centerBox.x1, arena.centerBox.x2);
-        int maxX = Math.max(arena.centerBox.x1, arena.centerBox.x2);
-        int minZ = Math.min(arena.centerBox.z1, arena.centerBox.z2);
-        int maxZ = Math.max(arena.centerBox.z1, arena.centerBox.z2);
-        int y = arena.centerBox.y1;
+        int minX = arena.getCenterMinX();
+        int maxX = arena.getCenterMaxX();
+        int minZ = arena.getCenterMinZ();
+        int maxZ = arena.getCenterMaxZ();
+        int y = arena.getCenterY();
 
         int blocksReset = 0;
 
@@ -382,20 +661,17 @@ public class GameService {
     /**
      * Clean up arrows, projectiles, and dropped items around the arena
      */
-    private void cleanupArenaEntities(ArenaConfig arena) {
-        if (arena.centerBox == null)
+    private void cleanupArenaEntities(RuntimeArena arena) {
+        if (!arena.hasCenter())
             return;
 
-        org.bukkit.World world = org.bukkit.Bukkit.getWorld(arena.world);
+        org.bukkit.World world = arena.getWorld();
         if (world == null)
             return;
 
-        // Calculate center point for cleanup
-        int centerX = (arena.centerBox.x1 + arena.centerBox.x2) / 2;
-        int centerZ = (arena.centerBox.z1 + arena.centerBox.z2) / 2;
-        int centerY = arena.centerBox.y1;
-
-        org.bukkit.Location center = new org.bukkit.Location(world, centerX, centerY, centerZ);
+        // Center point for cleanup
+        org.bukkit.Location center = new org.bukkit.Location(world, arena.getCenterX(), arena.getCenterY(),
+                arena.getCenterZ());
 
         // Cleanup radius around center (adjust based on arena size)
         int cleanupRadius = 30; // blocks from center
@@ -566,22 +842,15 @@ public class GameService {
             return;
         }
 
-        // Create fireworks task that runs every 30 ticks (1.5 seconds) for 20 seconds
-        BukkitTask fireworksTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        // Fireworks every 30 ticks (1.5 seconds), starting after 1 second and
+        // stopping after 20 seconds (victory phase duration)
+        timerManager.startRepeating(TimerKey.of(gameId, TimerKey.Phase.FIREWORKS), 20L, 30L, 400L, () -> {
             for (Player player : winningPlayers) {
                 if (VirtualPlayerUtil.canPerformNetworkOperations(player) && player.isOnline()) {
                     spawnVictoryFirework(player, winner);
                 }
             }
-        }, 20L, 30L); // Start after 1 second, repeat every 1.5 seconds
-
-        // Store the task for cleanup
-        victoryFireworksMap.put(gameId, fireworksTask);
-
-        // Stop fireworks after 20 seconds (victory phase duration)
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            stopVictoryFireworks(gameId);
-        }, 400L); // 20 seconds = 400 ticks
+        });
 
         plugin.getLogger()
                 .info("Victory fireworks started for " + winningPlayers.size() + " players in game " + gameId);
@@ -591,9 +860,7 @@ public class GameService {
      * Stop victory fireworks for a game
      */
     private void stopVictoryFireworks(String gameId) {
-        BukkitTask fireworksTask = victoryFireworksMap.remove(gameId);
-        if (fireworksTask != null && !fireworksTask.isCancelled()) {
-            fireworksTask.cancel();
+        if (timerManager.stopRepeating(TimerKey.of(gameId, TimerKey.Phase.FIREWORKS))) {
             plugin.getLogger().info("Stopped victory fireworks for game " + gameId);
         }
     }
@@ -0,0 +1,84 @@
+package plugins.battlebox.core;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Collects join requests and hands them over once per tick, grouped by
+ * arena, so a crowd sent in at once is placed in one pass instead of one
+ * join at a time. The flush task is only scheduled while requests are
+ * waiting.
+ */
+public class JoinQueue {
+    private final JavaPlugin plugin;
+    private final BiConsumer<String, List<Player>> onBatch; // arena id, players in request order
+
+    private Map<String, List<Player>> pending = new LinkedHashMap<>();
+    private final Set<UUID> queued = new HashSet<>();
+    private BukkitTask flushTask;
+
+    public JoinQueue(JavaPlugin plugin, BiConsumer<String, List<Player>> onBatch) {
+        this.plugin = plugin;
+        this.onBatch = onBatch;
+    }
+
+    /**
+     * Queue a player for the next batch. Returns false if they are already
+     * waiting in it.
+     */
+    public boolean offer(Player player, String arenaId) {
+        if (!queued.add(player.getUniqueId())) {
+            return false;
+        }
+        pending.computeIfAbsent(arenaId, id -> new ArrayList<>()).add(player);
+        if (flushTask == null) {
+            flushTask = Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+        return true;
+    }
+
+    public boolean isQueued(UUID playerId) {
+        return queued.contains(playerId);
+    }
+
+    private void flush() {
+        flushTask = null;
+        Map<String, List<Player>> batch = pending;
+        pending = new LinkedHashMap<>();
+        queued.clear();
+
+        for (Map.Entry<String, List<Player>> entry : batch.entrySet()) {
+            try {
+                onBatch.accept(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to process joins for arena " + entry.getKey(), e);
+                for (Player player : entry.getValue()) {
+                    VirtualPlayerUtil.safeSendMessage(player,
+                            ChatColor.RED + "Joining arena " + entry.getKey() + " failed. Please try again.");
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        pending.clear();
+        queued.clear();
+    }
+}
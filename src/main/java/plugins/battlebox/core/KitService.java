@@ -1,101 +1,59 @@
 package plugins.battlebox.core;
 
-import org.bukkit.Material;
+import java.util.List;
+
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.LeatherArmorMeta;
 
 import plugins.battlebox.game.Game;
+import plugins.battlebox.managers.KitManager;
 
 /**
  * Service for handling special kit operations.
- * Manages the four special kits: Healer, Fighter, Sniper, Speedster
+ * Kits come from kits.json (see {@link KitManager}); each special kit builds
+ * on the base kit and replaces the player's inventory when chosen.
  */
 public class KitService {
-    /**
-     * Give a special kit to player based on type
-     */
-    public void giveSpecialKit(Player player, String kitType, Game.TeamColor team) {
-        switch (kitType.toLowerCase()) {
-            case "healer" -> giveHealerKit(player, team);
-            case "fighter" -> giveFighterKit(player, team);
-            case "sniper" -> giveSniperKit(player, team);
-            case "speedster" -> giveSpeedsterKit(player, team);
-            default -> VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "Unknown kit: " + kitType);
-        }
-    }
-
-    private void giveHealerKit(Player player, Game.TeamColor team) {
-        // 2 instant health splash potions
-        ItemStack healthPotion = new ItemStack(Material.SPLASH_POTION, 2);
-        // Note: In real implementation, would set potion effect to instant health
-        // addItem(player, healthPotion);
-
-        VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "HEALER kit equipped!");
-    }
-
-    private void giveFighterKit(Player player, Game.TeamColor team) {
-        // Stone sword + leather chestplate
-        addItem(player, new ItemStack(Material.STONE_SWORD));
-
-        ItemStack chestplate = new ItemStack(Material.LEATHER_CHESTPLATE);
-        LeatherArmorMeta meta = (LeatherArmorMeta) chestplate.getItemMeta();
-        if (meta != null) {
-            meta.setColor(team == Game.TeamColor.RED ? org.bukkit.Color.RED : org.bukkit.Color.BLUE);
-            meta.setUnbreakable(true);
-            chestplate.setItemMeta(meta);
-        }
-        player.getInventory().setChestplate(chestplate);
+    private final KitManager kitManager;
 
-        VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "FIGHTER kit equipped!");
+    public KitService(KitManager kitManager) {
+        this.kitManager = kitManager;
     }
 
-    private void giveSniperKit(Player player, Game.TeamColor team) {
-        // Crossbow + 2 arrows
-        addItem(player, new ItemStack(Material.CROSSBOW));
-        addItem(player, new ItemStack(Material.ARROW, 2));
-
-        VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "SNIPER kit equipped!");
-    }
-
-    private void giveSpeedsterKit(Player player, Game.TeamColor team) {
-        // Speed-enchanted leather leggings + stone sword
-        addItem(player, new ItemStack(Material.STONE_SWORD));
-
-        ItemStack leggings = new ItemStack(Material.LEATHER_LEGGINGS);
-        LeatherArmorMeta meta = (LeatherArmorMeta) leggings.getItemMeta();
-        if (meta != null) {
-            meta.setColor(team == Game.TeamColor.RED ? org.bukkit.Color.RED : org.bukkit.Color.BLUE);
-            meta.setUnbreakable(true);
-            leggings.setItemMeta(meta);
+    /**
+     * Give a special kit to player based on type
+     *
+     * @return false if there is no such kit
+     */
+    public boolean giveSpecialKit(Player player, String kitType, Game.TeamColor team) {
+        KitTemplate kit = kitManager.getKit(kitType, team);
+        if (kit == null) {
+            VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "Unknown kit: " + kitType);
+            return false;
         }
-        player.getInventory().setLeggings(leggings);
-
-        // Give speed effect for duration of game player.addPotionEffect(new
-        // PotionEffect(PotionEffectType.SPEED, 20 * 120, 0)); // 2 minutes
 
-        VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "SPEEDSTER kit equipped!");
+        kit.apply(player);
+        VirtualPlayerUtil.safeSendMessage(player, team.chatColor + kit.getDisplayName() + " kit equipped!");
+        return true;
     }
 
-    private void addItem(Player player, ItemStack item) {
-        if (player.getInventory().firstEmpty() == -1) {
-            player.getWorld().dropItem(player.getLocation(), item);
-        } else {
-            player.getInventory().addItem(item);
-        }
+    /**
+     * Kit types as a comma-separated list for chat
+     */
+    public String describeKitTypes() {
+        return String.join(", ", getKitTypes());
     }
 
     /**
      * Get all available kit types
      */
-    public static String[] getKitTypes() {
-        return new String[] { "healer", "fighter", "sniper", "speedster" };
+    public List<String> getKitTypes() {
+        return kitManager.getKitIds();
     }
 
     /**
      * Check if a kit type is valid
      */
-    public static boolean isValidKitType(String kitType) {
-        return java.util.Arrays.asList(getKitTypes()).contains(kitType.toLowerCase());
+    public boolean isValidKitType(String kitType) {
+        return kitManager.hasKit(kitType);
     }
 }
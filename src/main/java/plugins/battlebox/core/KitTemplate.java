@@ -0,0 +1,58 @@
+package plugins.battlebox.core;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+/**
+ * A kit compiled for one team: prototype inventory contents built once at
+ * load. Applying it replaces the player's inventory with clones of the
+ * prototypes, so no item or meta is rebuilt per player. The prototypes are
+ * never handed out.
+ */
+public final class KitTemplate {
+    private final String id;
+    private final String displayName;
+    private final ItemStack[] contents; // storage slots
+    private final ItemStack[] armor; // boots, leggings, chestplate, helmet
+    private final ItemStack offHand;
+
+    public KitTemplate(String id, String displayName, ItemStack[] contents, ItemStack[] armor, ItemStack offHand) {
+        this.id = id;
+        this.displayName = displayName;
+        this.contents = contents.clone();
+        this.armor = armor.clone();
+        this.offHand = offHand;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Replace the player's inventory, armor and off hand with this kit
+     */
+    public void apply(Player player) {
+        PlayerInventory inventory = player.getInventory();
+        // setContents clears every slot it isn't given, armor and off hand included
+        inventory.setContents(copy(contents));
+        inventory.setArmorContents(copy(armor));
+        if (offHand != null) {
+            inventory.setItemInOffHand(offHand.clone());
+        }
+    }
+
+    private static ItemStack[] copy(ItemStack[] prototypes) {
+        ItemStack[] items = new ItemStack[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            if (prototypes[i] != null) {
+                items[i] = prototypes[i].clone();
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,214 @@
+package plugins.battlebox.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Disk-backed music preferences. Each player has a small binary file
+ * ({@code <uuid>.dat}, 10 bytes), read off the main thread when they log in.
+ * Preferences stay cached while the player is online and are dropped when
+ * they leave, once any unsaved change is written. Changes are marked dirty and
+ * written together by a debounced background flush. The main thread only reads
+ * a file itself when a player changes a setting before their background load
+ * has finished, so the change builds on the saved values.
+ */
+public class MusicPreferenceStore {
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_MUSIC = 1;
+    private static final int FLAG_SOUNDS = 2;
+    private static final long FLUSH_DELAY_TICKS = 100L; // collect changes for 5 seconds before writing
+
+    private final JavaPlugin plugin;
+    private final File folder;
+    private final Map<UUID, MusicService.MusicPreference> cache = new HashMap<>(); // guarded by itself
+    private final Set<UUID> online = new HashSet<>(); // guarded by cache; players whose entry must stay
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object flushLock = new Object(); // the flush thread and shutdown write the same files
+
+    public MusicPreferenceStore(JavaPlugin plugin, File folder) {
+        this.plugin = plugin;
+        this.folder = folder;
+    }
+
+    /**
+     * The cached preference, or null if it isn't loaded (yet)
+     */
+    public MusicService.MusicPreference get(UUID playerId) {
+        synchronized (cache) {
+            return cache.get(playerId);
+        }
+    }
+
+    /**
+     * The cached preference, read from disk on the calling thread if it isn't
+     * loaded yet (defaults if there is no file). For changing settings, which
+     * must start from the saved values rather than defaults. Call
+     * {@link #markDirty} after changing it.
+     */
+    public MusicService.MusicPreference getOrLoad(UUID playerId) {
+        MusicService.MusicPreference preference = get(playerId);
+        if (preference != null) {
+            return preference;
+        }
+        MusicService.MusicPreference loaded = read(playerId);
+        synchronized (cache) {
+            // The background load may have landed meanwhile; keep whichever is cached
+            cache.putIfAbsent(playerId, loaded != null ? loaded : new MusicService.MusicPreference());
+            return cache.get(playerId);
+        }
+    }
+
+    /**
+     * Store a preference and queue it for writing
+     */
+    public void put(UUID playerId, MusicService.MusicPreference preference) {
+        synchronized (cache) {
+            cache.put(playerId, preference);
+        }
+        markDirty(playerId);
+    }
+
+    /**
+     * Queue a cached preference that was changed in place for writing
+     */
+    public void markDirty(UUID playerId) {
+        dirty.add(playerId);
+        if (flushScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, this::flush, FLUSH_DELAY_TICKS);
+        }
+    }
+
+    /**
+     * Read a player's preference in the background. Anything set before the
+     * read finishes wins over what is on disk.
+     */
+    public void loadAsync(UUID playerId) {
+        synchronized (cache) {
+            online.add(playerId);
+            if (cache.containsKey(playerId)) {
+                return;
+            }
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            MusicService.MusicPreference loaded = read(playerId);
+            if (loaded != null) {
+                synchronized (cache) {
+                    if (online.contains(playerId)) {
+                        cache.putIfAbsent(playerId, loaded);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop a player's preference when they leave. An unsaved change is kept
+     * until the flush has written it.
+     */
+    public void unload(UUID playerId) {
+        synchronized (cache) {
+            online.remove(playerId);
+            if (!dirty.contains(playerId)) {
+                cache.remove(playerId);
+            }
+        }
+    }
+
+    /**
+     * Write every dirty preference now. Runs on the flush thread, and on the
+     * main thread only at shutdown.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushScheduled.set(false);
+            int written = 0;
+            for (UUID playerId : dirty) {
+                dirty.remove(playerId);
+                MusicService.MusicPreference preference;
+                synchronized (cache) {
+                    preference = cache.get(playerId);
+                }
+                if (preference != null && write(playerId, preference)) {
+                    written++;
+                }
+                synchronized (cache) {
+                    // Left while the change was pending; nothing else keeps the entry now
+                    if (!online.contains(playerId) && !dirty.contains(playerId)) {
+                        cache.remove(playerId);
+                    }
+                }
+            }
+            if (written > 0) {
+                plugin.getLogger().fine("Saved music preferences for " + written + " players");
+            }
+        }
+    }
+
+    private MusicService.MusicPreference read(UUID playerId) {
+        File file = new File(folder, playerId + ".dat");
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                plugin.getLogger().warning("Ignoring music preferences with unknown format " + version + " for "
+                        + playerId);
+                return null;
+            }
+            int flags = in.readUnsignedByte();
+            MusicService.MusicPreference preference = new MusicService.MusicPreference();
+            preference.setMusicEnabled((flags & FLAG_MUSIC) != 0);
+            preference.setSoundEffectsEnabled((flags & FLAG_SOUNDS) != 0);
+            preference.setMusicVolume(in.readFloat());
+            preference.setSoundVolume(in.readFloat());
+            return preference;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to load music preferences for " + playerId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean write(UUID playerId, MusicService.MusicPreference preference) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(10);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte((preference.isMusicEnabled() ? FLAG_MUSIC : 0)
+                    | (preference.isSoundEffectsEnabled() ? FLAG_SOUNDS : 0));
+            out.writeFloat(preference.getMusicVolume());
+            out.writeFloat(preference.getSoundVolume());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+
+        try {
+            Files.createDirectories(folder.toPath());
+            // Write beside the target and swap it in, so a crash never leaves a torn file
+            File target = new File(folder, playerId + ".dat");
+            File temp = new File(folder, playerId + ".tmp");
+            Files.write(temp.toPath(), bytes.toByteArray());
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save music preferences for " + playerId + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
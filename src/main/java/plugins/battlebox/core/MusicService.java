@@ -9,14 +9,17 @@ import org.bukkit.scheduler.BukkitTask;
 import plugins.battlebox.game.Game;
 import plugins.battlebox.game.GameState;
 
+import java.io.File;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Ultra-simple music service - ALWAYS stop before playing new music
- * No overlaps, no complex state, just works
+ * Simple music service - stops a game's current track before playing the next.
+ * All looping runs off one scheduler task and a queue ordered by each game's
+ * next loop tick; only the track being replaced is stopped, never every sound.
  */
 public class MusicService {
 
@@ -24,13 +27,21 @@ public class MusicService {
 
     // Global state: what music is currently playing for each game
     private final Map<String, GameMusicInfo> currentGameMusic = new ConcurrentHashMap<>();
-    private final Map<UUID, MusicPreference> playerPreferences = new ConcurrentHashMap<>();
+    private final MusicPreferenceStore preferenceStore;
+
+    // Looping tracks by next loop tick; one entry per game (main thread only)
+    private final PriorityQueue<GameMusicInfo> loopQueue = new PriorityQueue<>(
+            Comparator.comparingLong((GameMusicInfo info) -> info.nextLoopTick));
+    private BukkitTask loopTask;
+    private long currentTick;
 
     private static final float DEFAULT_VOLUME = 0.5f;
     private static final float DEFAULT_PITCH = 1.0f;
+    private static final SoundCategory MUSIC_CATEGORY = SoundCategory.NEUTRAL;
 
     public MusicService(JavaPlugin plugin) {
         this.plugin = plugin;
+        this.preferenceStore = new MusicPreferenceStore(plugin, new File(plugin.getDataFolder(), "music"));
         plugin.getLogger().info("MusicService initialized - Ultra-simple mode");
     }
 
@@ -86,10 +97,11 @@ public class MusicService {
      * Player music preferences
      */
     public static class MusicPreference {
-        private boolean musicEnabled = true;
-        private boolean soundEffectsEnabled = true;
-        private float musicVolume = DEFAULT_VOLUME;
-        private float soundVolume = DEFAULT_VOLUME;
+        // Changed on the main thread, read by the preference store's flush thread
+        private volatile boolean musicEnabled = true;
+        private volatile boolean soundEffectsEnabled = true;
+        private volatile float musicVolume = DEFAULT_VOLUME;
+        private volatile float soundVolume = DEFAULT_VOLUME;
 
         public boolean isMusicEnabled() {
             return musicEnabled;
@@ -125,21 +137,17 @@ public class MusicService {
     }
 
     /**
-     * Game music info
+     * Game music info: the track a game is playing and when it next loops
      */
     private static class GameMusicInfo {
+        private final Game game;
         private final MusicEvent musicEvent;
-        private final BukkitTask loopTask;
+        private long nextLoopTick;
+        private boolean stopped;
 
-        public GameMusicInfo(MusicEvent musicEvent, BukkitTask loopTask) {
+        public GameMusicInfo(Game game, MusicEvent musicEvent) {
+            this.game = game;
             this.musicEvent = musicEvent;
-            this.loopTask = loopTask;
-        }
-
-        public void stop() {
-            if (loopTask != null && !loopTask.isCancelled()) {
-                loopTask.cancel();
-            }
         }
     }
 
@@ -164,18 +172,16 @@ public class MusicService {
     }
 
     /**
-     * Stop all music for a game - GUARANTEED to stop everything
+     * Stop the music for a game and silence its track for the game's players
      */
     public void stopGameMusic(String gameId) {
         GameMusicInfo info = currentGameMusic.remove(gameId);
         if (info != null) {
-            info.stop();
-            plugin.getLogger().info("Stopped all music for game " + gameId);
+            info.stopped = true;
+            loopQueue.remove(info);
+            stopTrackForPlayers(info.game.getRealPlayers(), info.musicEvent);
+            plugin.getLogger().info("Stopped music for game " + gameId);
         }
-
-        // EXTRA SAFETY: Stop all sounds for all players in the game (if we can find
-        // them)
-        stopAllSoundsForGame(gameId);
     }
 
     /**
@@ -220,6 +226,11 @@ public class MusicService {
     }
 
     public void onPlayerLeaveGame(Player player, Game game) {
+        // The game's track would otherwise keep playing until it ends
+        GameMusicInfo info = currentGameMusic.get(game.getId());
+        if (info != null) {
+            stopTrack(player, info.musicEvent);
+        }
         playSoundEffect(player, MusicEvent.PLAYER_LEAVE);
     }
 
@@ -241,26 +252,59 @@ public class MusicService {
     }
 
     // Player preferences
+
+    /**
+     * Start loading a player's saved preferences in the background (on login)
+     */
+    public void loadPlayerPreference(Player player) {
+        if (VirtualPlayerUtil.isVirtualPlayer(player))
+            return;
+        preferenceStore.loadAsync(player.getUniqueId());
+    }
+
+    /**
+     * Drop a player's cached preferences when they leave
+     */
+    public void unloadPlayerPreference(Player player) {
+        if (VirtualPlayerUtil.isVirtualPlayer(player))
+            return;
+        preferenceStore.unload(player.getUniqueId());
+    }
+
+    /**
+     * The player's preferences, or defaults if they haven't loaded. Don't
+     * change the returned object; use the setters below, which start from
+     * the saved values even before the background load has finished.
+     */
     public MusicPreference getPlayerPreference(Player player) {
-        return playerPreferences.computeIfAbsent(player.getUniqueId(), k -> new MusicPreference());
+        MusicPreference pref = preferenceStore.get(player.getUniqueId());
+        return pref != null ? pref : new MusicPreference();
     }
 
     public void updatePlayerPreference(Player player, MusicPreference preference) {
-        playerPreferences.put(player.getUniqueId(), preference);
+        preferenceStore.put(player.getUniqueId(), preference);
     }
 
     public boolean togglePlayerMusic(Player player) {
-        MusicPreference pref = getPlayerPreference(player);
+        MusicPreference pref = preferenceStore.getOrLoad(player.getUniqueId());
         pref.setMusicEnabled(!pref.isMusicEnabled());
+        preferenceStore.markDirty(player.getUniqueId());
         return pref.isMusicEnabled();
     }
 
     public boolean togglePlayerSoundEffects(Player player) {
-        MusicPreference pref = getPlayerPreference(player);
+        MusicPreference pref = preferenceStore.getOrLoad(player.getUniqueId());
         pref.setSoundEffectsEnabled(!pref.isSoundEffectsEnabled());
+        preferenceStore.markDirty(player.getUniqueId());
         return pref.isSoundEffectsEnabled();
     }
 
+    public void setPlayerMusicVolume(Player player, float volume) {
+        MusicPreference pref = preferenceStore.getOrLoad(player.getUniqueId());
+        pref.setMusicVolume(volume);
+        preferenceStore.markDirty(player.getUniqueId());
+    }
+
     // =================================================================
     // PRIVATE METHODS - THE CORE LOGIC
     // =================================================================
@@ -274,71 +318,64 @@ public class MusicService {
     }
 
     /**
-     * THE CORE METHOD: Always stop, then play new music
-     * FIXED: No more overlapping - music only loops AFTER it finishes
+     * Stop the game's current track, play the new one and queue its next loop
      */
     private void playMusicForGame(Game game, MusicEvent musicEvent) {
         String gameId = game.getId();
 
         plugin.getLogger().info("MUSIC CHANGE for game " + gameId + ": " + musicEvent.displayName);
 
-        // STEP 1: ALWAYS STOP EVERYTHING FIRST
+        // Stop only the track being replaced; the client drops it right away, so
+        // the new one can start on the same tick
         stopGameMusic(gameId);
 
-        // STEP 2: Aggressive stopping - stop all sounds for all players immediately
         Set<Player> players = game.getRealPlayers();
+        plugin.getLogger().info("Playing " + musicEvent.displayName + " for " + players.size() + " players");
         for (Player player : players) {
-            if (VirtualPlayerUtil.canPerformNetworkOperations(player)) {
-                try {
-                    player.stopAllSounds();
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Failed to stop sounds for " + player.getName() + ": " + e.getMessage());
-                }
-            }
+            playMusicForPlayer(player, musicEvent);
         }
 
-        // STEP 3: Wait for sounds to actually stop
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-
-            // STEP 4: Play new music for all players
-            Set<Player> currentPlayers = game.getRealPlayers();
-            plugin.getLogger().info("Playing " + musicEvent.displayName + " for " + currentPlayers.size() + " players");
+        GameMusicInfo info = new GameMusicInfo(game, musicEvent);
+        currentGameMusic.put(gameId, info);
+        if (musicEvent.isLooped()) {
+            // Loop only AFTER the track finishes
+            info.nextLoopTick = currentTick + musicEvent.durationTicks;
+            loopQueue.add(info);
+            if (loopTask == null) {
+                loopTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tickLoops, 1L, 1L);
+            }
+        }
+    }
 
-            for (Player player : currentPlayers) {
-                if (VirtualPlayerUtil.canPerformNetworkOperations(player)) {
-                    playMusicForPlayer(player, musicEvent);
-                }
+    /**
+     * Replay every track whose loop point has come, then stop the task if
+     * nothing is left to loop
+     */
+    private void tickLoops() {
+        currentTick++;
+        while (!loopQueue.isEmpty() && loopQueue.peek().nextLoopTick <= currentTick) {
+            GameMusicInfo info = loopQueue.poll();
+            if (info.stopped) {
+                continue;
             }
 
-            // STEP 5: Set up looping ONLY if needed and AFTER track finishes
-            BukkitTask loopTask = null;
-            if (musicEvent.isLooped()) {
-                // FIXED: Wait for track to FINISH, then start looping
-                loopTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-                    Set<Player> activePlayers = game.getRealPlayers();
-                    plugin.getLogger()
-                            .fine("Looping " + musicEvent.displayName + " for " + activePlayers.size() + " players");
-
-                    // Stop any residual sounds before playing again
-                    for (Player player : activePlayers) {
-                        if (VirtualPlayerUtil.canPerformNetworkOperations(player)) {
-                            try {
-                                player.stopAllSounds(); // Ensure clean slate
-                                playMusicForPlayer(player, musicEvent);
-                            } catch (Exception e) {
-                                plugin.getLogger().warning(
-                                        "Failed to loop music for " + player.getName() + ": " + e.getMessage());
-                            }
-                        }
-                    }
-                }, musicEvent.durationTicks + 10L, musicEvent.durationTicks + 10L); // +10 ticks buffer to ensure track
-                                                                                    // finishes
+            Set<Player> activePlayers = info.game.getRealPlayers();
+            plugin.getLogger()
+                    .fine("Looping " + info.musicEvent.displayName + " for " + activePlayers.size() + " players");
+            for (Player player : activePlayers) {
+                // Clear any tail of the last play-through before starting again
+                stopTrack(player, info.musicEvent);
+                playMusicForPlayer(player, info.musicEvent);
             }
 
-            // STEP 6: Store the current music info
-            currentGameMusic.put(gameId, new GameMusicInfo(musicEvent, loopTask));
+            info.nextLoopTick = currentTick + info.musicEvent.durationTicks;
+            loopQueue.add(info);
+        }
 
-        }, 10L); // Wait 10 ticks (0.5 seconds) for previous sounds to stop
+        if (loopQueue.isEmpty() && loopTask != null) {
+            loopTask.cancel();
+            loopTask = null;
+        }
     }
 
     private void playMusicForPlayer(Player player, MusicEvent musicEvent) {
@@ -353,50 +390,37 @@ public class MusicService {
             if (musicEvent.isCustomSound()) {
                 // Use MUSIC category for better control over custom streaming music
                 player.playSound(player, musicEvent.customSound,
-                        SoundCategory.NEUTRAL, pref.getMusicVolume(), DEFAULT_PITCH);
+                        MUSIC_CATEGORY, pref.getMusicVolume(), DEFAULT_PITCH);
             } else {
                 player.playSound(player, musicEvent.sound,
-                        SoundCategory.NEUTRAL, pref.getMusicVolume(), DEFAULT_PITCH);
+                        MUSIC_CATEGORY, pref.getMusicVolume(), DEFAULT_PITCH);
             }
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to play music for " + player.getName() + ": " + e.getMessage());
         }
     }
 
+    private void stopTrackForPlayers(Set<Player> players, MusicEvent musicEvent) {
+        for (Player player : players) {
+            stopTrack(player, musicEvent);
+        }
+    }
+
     /**
-     * Extra safety method - try to stop all sounds for players
+     * Stop one track for a player, leaving every other sound playing
      */
-    private void stopAllSoundsForGame(String gameId) {
-        // Find the game and stop all sounds for its players
+    private void stopTrack(Player player, MusicEvent musicEvent) {
+        if (!VirtualPlayerUtil.canPerformNetworkOperations(player))
+            return;
+
         try {
-            // We need to access the game manager to get the game
-            if (plugin instanceof plugins.battlebox.BattleBox) {
-                plugins.battlebox.BattleBox battleBoxPlugin = (plugins.battlebox.BattleBox) plugin;
-                plugins.battlebox.game.Game game = battleBoxPlugin.getGameManager().getGame(gameId);
-
-                if (game != null) {
-                    Set<Player> players = game.getRealPlayers();
-                    plugin.getLogger()
-                            .info("Force-stopping all sounds for " + players.size() + " players in game " + gameId);
-
-                    for (Player player : players) {
-                        if (VirtualPlayerUtil.canPerformNetworkOperations(player)) {
-                            try {
-                                // Stop ALL sounds for this player
-                                player.stopAllSounds();
-                                plugin.getLogger().fine("Stopped all sounds for player: " + player.getName());
-                            } catch (Exception e) {
-                                plugin.getLogger().warning(
-                                        "Failed to stop sounds for " + player.getName() + ": " + e.getMessage());
-                            }
-                        }
-                    }
-                } else {
-                    plugin.getLogger().fine("Could not find game " + gameId + " to stop sounds");
-                }
+            if (musicEvent.isCustomSound()) {
+                player.stopSound(musicEvent.customSound, MUSIC_CATEGORY);
+            } else {
+                player.stopSound(musicEvent.sound, MUSIC_CATEGORY);
             }
         } catch (Exception e) {
-            plugin.getLogger().warning("Error stopping sounds for game " + gameId + ": " + e.getMessage());
+            plugin.getLogger().warning("Failed to stop music for " + player.getName() + ": " + e.getMessage());
         }
     }
 
@@ -407,12 +431,19 @@ public class MusicService {
         plugin.getLogger().info("Shutting down MusicService...");
 
         // Stop all music
-        for (GameMusicInfo info : currentGameMusic.values()) {
-            info.stop();
+        for (String gameId : Set.copyOf(currentGameMusic.keySet())) {
+            stopGameMusic(gameId);
+        }
+        loopQueue.clear();
+        if (loopTask != null) {
+            loopTask.cancel();
+            loopTask = null;
         }
 
         currentGameMusic.clear();
-        playerPreferences.clear();
+
+        // Write out any changes still waiting for the background flush
+        preferenceStore.flush();
 
         plugin.getLogger().info("MusicService shutdown complete");
     }
@@ -1,19 +1,21 @@
 package plugins.battlebox.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.inventory.meta.LeatherArmorMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import config.ArenaConfig;
+import plugins.battlebox.arena.RuntimeArena;
 import plugins.battlebox.game.Game;
+import plugins.battlebox.managers.KitManager;
 
 /**
  * Service for handling player operations in games
@@ -21,9 +23,11 @@ import plugins.battlebox.game.Game;
 public class PlayerService {
 
     private final JavaPlugin plugin;
+    private final KitManager kitManager;
 
-    public PlayerService(JavaPlugin plugin) {
+    public PlayerService(JavaPlugin plugin, KitManager kitManager) {
         this.plugin = plugin;
+        this.kitManager = kitManager;
     }
 
     /**
@@ -50,50 +54,39 @@ public class PlayerService {
      * This method teleports player to the game map while the game is still in
      * waiting state.
      */
-    public void teleportToMap(Player player, Game game, ArenaConfig arena) {
+    public void teleportToMap(Player player, Game game, RuntimeArena arena) {
         if (!VirtualPlayerUtil.canPerformNetworkOperations(player)) {
             plugin.getLogger().info("Skipping teleport for virtual player: " + player.getName());
             return;
         }
 
-        Game.TeamColor team = game.getPlayerTeam(player);
-        ArenaConfig.Location mapLocation = team == Game.TeamColor.RED ? arena.teamSpawns.redSpawn
-                : arena.teamSpawns.blueSpawn;
-
-        Location location = createBukkitLocation(arena.world, mapLocation);
+        Location location = requireLocation(arena, arena.getSpawn(game.getPlayerTeam(player)));
         safeTeleport(player, location);
     }
 
     /**
      * Teleport player to spawn position
      */
-    public void teleportToSpawn(Player player, Game game, ArenaConfig arena) {
+    public void teleportToSpawn(Player player, Game game, RuntimeArena arena) {
         if (!VirtualPlayerUtil.canPerformNetworkOperations(player)) {
             plugin.getLogger().info("Skipping spawn teleport for virtual player: " + player.getName());
             return;
         }
 
-        Game.TeamColor team = game.getPlayerTeam(player);
-        ArenaConfig.Location spawn = team == Game.TeamColor.RED ? arena.teamSpawns.redSpawn
-                : arena.teamSpawns.blueSpawn;
-
-        Location location = createBukkitLocation(arena.world, spawn);
+        Location location = requireLocation(arena, arena.getSpawn(game.getPlayerTeam(player)));
         safeTeleport(player, location);
     }
 
     /**
      * Teleport player to game battle position
      */
-    public void teleportToGamePosition(Player player, Game game, ArenaConfig arena) {
+    public void teleportToGamePosition(Player player, Game game, RuntimeArena arena) {
         if (!VirtualPlayerUtil.canPerformNetworkOperations(player)) {
             plugin.getLogger().info("Skipping battle teleport for virtual player: " + player.getName());
             return;
         }
 
-        Game.TeamColor team = game.getPlayerTeam(player);
-        ArenaConfig.Location teleport = team == Game.TeamColor.RED ? arena.teamSpawns.redTeleport
-                : arena.teamSpawns.blueTeleport;
-        Location location = createBukkitLocation(arena.world, teleport);
+        Location location = requireLocation(arena, arena.getTeleport(game.getPlayerTeam(player)));
         safeTeleport(player, location);
 
         // Music is now handled automatically by MusicService based on game state
@@ -102,44 +95,56 @@ public class PlayerService {
     /**
      * Teleport player to center area during waiting state
      */
-    public void teleportToWaitingArea(Player player, ArenaConfig arena) {
-        if (!VirtualPlayerUtil.canPerformNetworkOperations(player)) {
-            plugin.getLogger().info("Skipping waiting area teleport for virtual player: " + player.getName());
+    public void teleportToWaitingArea(Player player, RuntimeArena arena) {
+        teleportToWaitingArea(List.of(player), arena);
+    }
+
+    /**
+     * Teleport a group of players to the waiting area, with one chunk check
+     * and one scheduled teleport task for the whole group
+     */
+    public void teleportToWaitingArea(Collection<Player> players, RuntimeArena arena) {
+        List<Player> movable = new ArrayList<>(players.size());
+        for (Player player : players) {
+            if (VirtualPlayerUtil.canPerformNetworkOperations(player)) {
+                movable.add(player);
+            } else {
+                plugin.getLogger().info("Skipping waiting area teleport for virtual player: " + player.getName());
+            }
+        }
+        if (movable.isEmpty()) {
             return;
         }
 
         // Calculate center of the center box for waiting area
-        double centerX = (arena.centerBox.x1 + arena.centerBox.x2) / 2.0;
-        double centerZ = (arena.centerBox.z1 + arena.centerBox.z2) / 2.0;
-        double waitingY = arena.centerBox.y1 + 5; // 5 blocks above the center box
+        double centerX = arena.getCenterX();
+        double centerZ = arena.getCenterZ();
+        double waitingY = arena.getCenterY() + 5; // 5 blocks above the center box
 
-        World world = Bukkit.getWorld(arena.world);
+        World world = arena.getWorld();
         if (world == null) {
-            plugin.getLogger().warning("World " + arena.world + " not found for waiting area teleport");
+            plugin.getLogger().warning("World " + arena.getWorldName() + " not found for waiting area teleport");
             return;
         }
         Location waitingLocation = new Location(world, centerX, waitingY, centerZ, 0, 0);
-        safeTeleport(player, waitingLocation);
+        safeTeleport(movable, waitingLocation);
 
-        VirtualPlayerUtil.safeSendMessage(player, ChatColor.GRAY + "Waiting for more players to join...");
+        for (Player player : movable) {
+            VirtualPlayerUtil.safeSendMessage(player, ChatColor.GRAY + "Waiting for more players to join...");
+        }
     }
 
     /**
      * Give base kit to player
      */
     public void giveBaseKit(Player player, Game.TeamColor team) {
-        player.getInventory().clear();
-
-        // Base items as per BattleBox.md
-        addItem(player, new ItemStack(Material.WOODEN_SWORD));
-        addItem(player, new ItemStack(Material.BOW));
-        addItem(player, new ItemStack(Material.ARROW, 6));
-        addItem(player, createUnbreakableItem(Material.SHEARS));
-
-        // Team wool (unlimited - will auto-refill)
-        Material woolType = team == Game.TeamColor.RED ? Material.RED_WOOL : Material.BLUE_WOOL;
-        addItem(player, new ItemStack(woolType, 64)); // Team boots
-        player.getInventory().setBoots(createTeamBoots(team));
+        // Base items as per BattleBox.md, defined in kits.json
+        KitTemplate baseKit = kitManager.getKit(KitManager.BASE_KIT, team);
+        if (baseKit == null) {
+            player.getInventory().clear();
+            return;
+        }
+        baseKit.apply(player);
 
         VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "Base kit equipped!");
     }
@@ -160,55 +165,30 @@ public class PlayerService {
         VirtualPlayerUtil.safeSendMessage(player, team.chatColor + "Wool refilled!");
     }
 
-    private Location createBukkitLocation(String worldName, ArenaConfig.Location loc) {
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            throw new IllegalStateException("World not found: " + worldName);
+    private Location requireLocation(RuntimeArena arena, Location location) {
+        if (location == null) {
+            throw new IllegalStateException("World not found: " + arena.getWorldName());
         }
-
-        Location location = new Location(world, loc.x, loc.y, loc.z);
-        location.setYaw((float) loc.yaw);
-        location.setPitch((float) loc.pitch);
         return location;
     }
 
     private void safeTeleport(Player player, Location location) {
+        safeTeleport(List.of(player), location);
+    }
+
+    private void safeTeleport(List<Player> players, Location location) {
         // Ensure chunk is loaded before teleporting
         if (!location.getChunk().isLoaded()) {
             location.getChunk().load();
         }
 
         Bukkit.getScheduler().runTask(plugin, () -> {
-            player.teleport(location);
+            for (Player player : players) {
+                player.teleport(location);
+            }
         });
     }
 
-    private ItemStack createTeamBoots(Game.TeamColor team) {
-        ItemStack boots = new ItemStack(Material.LEATHER_BOOTS);
-        LeatherArmorMeta meta = (LeatherArmorMeta) boots.getItemMeta();
-
-        if (meta != null) {
-            meta.setColor(team == Game.TeamColor.RED ? org.bukkit.Color.RED : org.bukkit.Color.BLUE);
-            meta.addEnchant(Enchantment.DURABILITY, 3, true);
-            meta.setUnbreakable(true);
-            boots.setItemMeta(meta);
-        }
-
-        return boots;
-    }
-
-    private ItemStack createUnbreakableItem(Material material) {
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-
-        if (meta != null) {
-            meta.setUnbreakable(true);
-            item.setItemMeta(meta);
-        }
-
-        return item;
-    }
-
     private void addItem(Player player, ItemStack item) {
         if (player.getInventory().firstEmpty() == -1) {
             player.getWorld().dropItem(player.getLocation(), item);
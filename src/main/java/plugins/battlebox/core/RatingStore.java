@@ -0,0 +1,288 @@
+package plugins.battlebox.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Elo skill ratings for every player who has finished a game. Ratings live in
+ * an open-addressing table keyed by the two halves of the UUID, so lookups
+ * don't box or allocate. The table is read and written on the main thread
+ * only. The whole table is loaded from one file in the background at startup.
+ * Changes are written back by a debounced background save, but only once the
+ * load has finished, so a file that failed to load is never overwritten. An
+ * unreadable file is moved aside before saving resumes.
+ */
+public class RatingStore {
+    public static final int DEFAULT_RATING = 1000;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int K_FACTOR = 32;
+    private static final long SAVE_DELAY_TICKS = 200L; // collect results for 10 seconds before writing
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final JavaPlugin plugin;
+    private final File file;
+    private final Object writeLock = new Object();
+    private final AtomicReference<byte[]> pendingWrite = new AtomicReference<>();
+
+    // Open addressing; a slot with both halves 0 is empty (no real UUID is all zeroes)
+    private long[] mostBits = new long[INITIAL_CAPACITY];
+    private long[] leastBits = new long[INITIAL_CAPACITY];
+    private int[] ratings = new int[INITIAL_CAPACITY];
+    private int size;
+    private BukkitTask saveTask;
+    private boolean loaded; // the file was read, absent, or moved aside; saving is safe
+    private boolean unsaved; // changes made before the load finished
+
+    public RatingStore(JavaPlugin plugin, File file) {
+        this.plugin = plugin;
+        this.file = file;
+    }
+
+    /**
+     * The player's rating, or {@link #DEFAULT_RATING} if they have none yet
+     */
+    public int getRating(UUID playerId) {
+        int slot = findSlot(mostBits, leastBits, playerId.getMostSignificantBits(),
+                playerId.getLeastSignificantBits());
+        return isEmpty(slot) ? DEFAULT_RATING : ratings[slot];
+    }
+
+    /**
+     * Update both teams' ratings after a game. Each side is rated by its
+     * average, and every member moves by the same amount.
+     *
+     * @param score 1 if the first team won, 0 if it lost, 0.5 for a draw
+     */
+    public void recordMatch(Collection<UUID> team, Collection<UUID> opponents, double score) {
+        if (team.isEmpty() || opponents.isEmpty()) {
+            return;
+        }
+        double expected = 1.0 / (1.0 + Math.pow(10.0, (average(opponents) - average(team)) / 400.0));
+        int change = (int) Math.round(K_FACTOR * (score - expected));
+        if (change == 0) {
+            return;
+        }
+        for (UUID playerId : team) {
+            put(playerId, getRating(playerId) + change);
+        }
+        for (UUID playerId : opponents) {
+            put(playerId, getRating(playerId) - change);
+        }
+        scheduleSave();
+    }
+
+    private double average(Collection<UUID> players) {
+        long total = 0;
+        for (UUID playerId : players) {
+            total += getRating(playerId);
+        }
+        return (double) total / players.size();
+    }
+
+    private void put(UUID playerId, int rating) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        if ((size + 1) * 2 > mostBits.length) {
+            rehash(mostBits.length * 2);
+        }
+        int slot = findSlot(mostBits, leastBits, most, least);
+        if (isEmpty(slot)) {
+            mostBits[slot] = most;
+            leastBits[slot] = least;
+            size++;
+        }
+        ratings[slot] = rating;
+    }
+
+    private boolean isEmpty(int slot) {
+        return mostBits[slot] == 0 && leastBits[slot] == 0;
+    }
+
+    private static int findSlot(long[] mostBits, long[] leastBits, long most, long least) {
+        int mask = mostBits.length - 1;
+        long mixed = (most ^ least) * 0x9E3779B97F4A7C15L;
+        int slot = (int) (mixed >>> 32) & mask;
+        while ((mostBits[slot] != 0 || leastBits[slot] != 0)
+                && (mostBits[slot] != most || leastBits[slot] != least)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMost = mostBits;
+        long[] oldLeast = leastBits;
+        int[] oldRatings = ratings;
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        ratings = new int[capacity];
+        for (int i = 0; i < oldMost.length; i++) {
+            if (oldMost[i] != 0 || oldLeast[i] != 0) {
+                int slot = findSlot(mostBits, leastBits, oldMost[i], oldLeast[i]);
+                mostBits[slot] = oldMost[i];
+                leastBits[slot] = oldLeast[i];
+                ratings[slot] = oldRatings[i];
+            }
+        }
+    }
+
+    /**
+     * Read the rating file in the background and merge it in on the main
+     * thread. Ratings changed before the read finishes win over the file.
+     */
+    public void loadAsync() {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long[] read = read();
+            if (read == null && !moveAside()) {
+                return; // leave the file alone and don't save over it
+            }
+            long[] entries = read != null ? read : new long[0];
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                for (int i = 0; i < entries.length; i += 3) {
+                    UUID playerId = new UUID(entries[i], entries[i + 1]);
+                    int slot = findSlot(mostBits, leastBits, entries[i], entries[i + 1]);
+                    if (isEmpty(slot)) {
+                        put(playerId, (int) entries[i + 2]);
+                    }
+                }
+                if (entries.length > 0) {
+                    plugin.getLogger().info("Loaded " + (entries.length / 3) + " player ratings");
+                }
+                loaded = true;
+                if (unsaved) {
+                    unsaved = false;
+                    scheduleSave();
+                }
+            });
+        });
+    }
+
+    /**
+     * Keep an unreadable rating file as {@code <name>.bad} so saving can't destroy it
+     */
+    private boolean moveAside() {
+        File bad = new File(file.getParentFile(), file.getName() + ".bad");
+        try {
+            Files.move(file.toPath(), bad.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().warning("Moved unreadable player ratings to " + bad.getName());
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to move unreadable player ratings aside, ratings will not be saved: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    private void scheduleSave() {
+        if (!loaded) {
+            unsaved = true;
+            return;
+        }
+        if (saveTask == null) {
+            saveTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                saveTask = null;
+                pendingWrite.set(snapshot());
+                Bukkit.getScheduler().runTaskAsynchronously(plugin, this::writePending);
+            }, SAVE_DELAY_TICKS);
+        }
+    }
+
+    /**
+     * Write any unsaved ratings now, on the calling thread. For shutdown.
+     * Nothing is written if the rating file was never loaded.
+     */
+    public void flush() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+            pendingWrite.set(snapshot());
+        }
+        writePending();
+    }
+
+    /**
+     * Serialise the table on the main thread so the writer never reads it
+     */
+    private byte[] snapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + size * 20);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(size);
+            for (int i = 0; i < mostBits.length; i++) {
+                if (!isEmpty(i)) {
+                    out.writeLong(mostBits[i]);
+                    out.writeLong(leastBits[i]);
+                    out.writeInt(ratings[i]);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writePending() {
+        // Claiming the bytes under the lock keeps an older save from landing last
+        synchronized (writeLock) {
+            byte[] data = pendingWrite.getAndSet(null);
+            if (data == null) {
+                return;
+            }
+            try {
+                Files.createDirectories(file.getParentFile().toPath());
+                // Write beside the target and swap it in, so a crash never leaves a torn file
+                File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+                Files.write(temp.toPath(), data);
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to save player ratings: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Entries as (most bits, least bits, rating) triples; empty if there is
+     * no file yet, null if it could not be read
+     */
+    private long[] read() {
+        if (!file.isFile()) {
+            return new long[0];
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                plugin.getLogger().warning("Ignoring player ratings with unknown format " + version);
+                return null;
+            }
+            int count = in.readInt();
+            if (count < 0 || count > Integer.MAX_VALUE / 3) {
+                plugin.getLogger().warning("Ignoring player ratings with bad entry count " + count);
+                return null;
+            }
+            long[] entries = new long[count * 3];
+            for (int i = 0; i < entries.length; i += 3) {
+                entries[i] = in.readLong();
+                entries[i + 1] = in.readLong();
+                entries[i + 2] = in.readInt();
+            }
+            return entries;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to load player ratings: " + e.getMessage());
+            return null;
+        }
+    }
+}
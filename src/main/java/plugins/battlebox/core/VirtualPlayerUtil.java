@@ -1,5 +1,9 @@
 package plugins.battlebox.core;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -10,6 +14,8 @@ import org.bukkit.plugin.java.JavaPlugin;
 public class VirtualPlayerUtil {
 
     private static JavaPlugin plugin;
+    private static volatile List<Predicate<Class<?>>> classifiers = List.of();
+    private static volatile ClassValue<Boolean> virtualClasses = newClassCache();
 
     public static void initialize(JavaPlugin pluginInstance) {
         plugin = pluginInstance;
@@ -18,15 +24,51 @@ public class VirtualPlayerUtil {
     /**
      * Check if a player is a virtual/fake player
      * Virtual players often have different class implementations that don't support
-     * network operations
+     * network operations. The verdict depends only on the player's class, so it
+     * is worked out once per class and cached.
      */
     public static boolean isVirtualPlayer(Player player) {
-        if (player == null) {
-            return false;
+        return player != null && virtualClasses.get(player.getClass());
+    }
+
+    /**
+     * Treat a player implementation class, and its subclasses, as virtual.
+     * Meant for NPC plugins whose classes the name heuristics don't catch.
+     */
+    public static synchronized void registerVirtualClass(Class<? extends Player> type) {
+        registerClassifier(type::isAssignableFrom);
+    }
+
+    /**
+     * Add a check that marks player classes as virtual. It runs once per
+     * player class, not per call.
+     */
+    public static synchronized void registerClassifier(Predicate<Class<?>> classifier) {
+        List<Predicate<Class<?>>> updated = new ArrayList<>(classifiers);
+        updated.add(classifier);
+        classifiers = List.copyOf(updated);
+        // A fresh ClassValue drops every verdict made before this registration
+        virtualClasses = newClassCache();
+    }
+
+    private static ClassValue<Boolean> newClassCache() {
+        return new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return classify(type);
+            }
+        };
+    }
+
+    private static boolean classify(Class<?> type) {
+        for (Predicate<Class<?>> classifier : classifiers) {
+            if (classifier.test(type)) {
+                return true;
+            }
         }
 
-        String className = player.getClass().getSimpleName();
-        String packageName = player.getClass().getPackage().getName();
+        String className = type.getSimpleName();
+        String packageName = type.getPackageName();
 
         // Common virtual player indicators
         return className.contains("Virtual") ||
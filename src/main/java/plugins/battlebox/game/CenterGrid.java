@@ -0,0 +1,108 @@
+package plugins.battlebox.game;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import config.Box;
+
+/**
+ * In-memory ownership grid of a game's center area.
+ * Kept up to date by the block listeners so win checks never have to scan the
+ * world. Call {@link #reconcile(World)} to resync with the real blocks.
+ */
+public class CenterGrid {
+    private static final byte EMPTY = 0;
+    private static final byte RED = 1;
+    private static final byte BLUE = 2;
+
+    private final int minX;
+    private final int minZ;
+    private final int y;
+    private final int sizeX;
+    private final int sizeZ;
+    private final byte[] cells;
+    private int redCount;
+    private int blueCount;
+
+    public CenterGrid(Box centerBox) {
+        this.minX = Math.min(centerBox.x1, centerBox.x2);
+        this.minZ = Math.min(centerBox.z1, centerBox.z2);
+        this.y = centerBox.y1;
+        this.sizeX = Math.abs(centerBox.x2 - centerBox.x1) + 1;
+        this.sizeZ = Math.abs(centerBox.z2 - centerBox.z1) + 1;
+        this.cells = new byte[sizeX * sizeZ];
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return y == this.y &&
+                x >= minX && x < minX + sizeX &&
+                z >= minZ && z < minZ + sizeZ;
+    }
+
+    /**
+     * Record the new block type at a position
+     *
+     * @return false if the position is outside the grid
+     */
+    public boolean update(int x, int y, int z, Material type) {
+        if (!contains(x, y, z)) {
+            return false;
+        }
+        setCell((x - minX) * sizeZ + (z - minZ), toCell(type));
+        return true;
+    }
+
+    /**
+     * Re-read every cell from the world, catching edits made outside the
+     * listeners
+     */
+    public void reconcile(World world) {
+        for (int dx = 0; dx < sizeX; dx++) {
+            for (int dz = 0; dz < sizeZ; dz++) {
+                Material type = world.getBlockAt(minX + dx, y, minZ + dz).getType();
+                setCell(dx * sizeZ + dz, toCell(type));
+            }
+        }
+    }
+
+    public int getRedCount() {
+        return redCount;
+    }
+
+    public int getBlueCount() {
+        return blueCount;
+    }
+
+    public int getSize() {
+        return cells.length;
+    }
+
+    private void setCell(int index, byte value) {
+        byte previous = cells[index];
+        if (previous == value) {
+            return;
+        }
+
+        if (previous == RED) {
+            redCount--;
+        } else if (previous == BLUE) {
+            blueCount--;
+        }
+
+        if (value == RED) {
+            redCount++;
+        } else if (value == BLUE) {
+            blueCount++;
+        }
+        cells[index] = value;
+    }
+
+    private static byte toCell(Material type) {
+        if (type == Material.RED_WOOL) {
+            return RED;
+        } else if (type == Material.BLUE_WOOL) {
+            return BLUE;
+        }
+        return EMPTY;
+    }
+}
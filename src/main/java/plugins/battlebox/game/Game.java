@@ -1,36 +1,52 @@
 package plugins.battlebox.game;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import config.ArenaConfig;
+import plugins.battlebox.arena.RuntimeArena;
 import plugins.battlebox.core.VirtualPlayerUtil;
 
 public class Game {
+    private static long gamesCreated; // main thread only
+
     private final String id;
     private final String arenaId;
+    private final long sequence; // creation order, unique across games
     private GameState state;
     private final Set<UUID> players;
-    private final int MAX_PLAYERS = 8;
+    // Online, non-virtual members. Copy-on-write: replaced on every change, so
+    // callers can iterate it while teleports or kicks change the roster.
+    private Set<Player> onlinePlayers = Collections.emptySet();
+    public static final int MAX_PLAYERS = 8;
     private Location arenaLocation; // Arena instance location
+    private RuntimeArena arena; // the arena moved onto this game's instance, or null to use the shared one
+    private GameManager gameManager; // Owning manager, keeps the player -> game index
 
     // Team management
     private final Map<UUID, TeamColor> playerTeams = new HashMap<>();
+    private final Set<UUID> kitChosen = new HashSet<>(); // members who already picked their kit
+    private Map<UUID, TeamColor> battleTeams; // teams as they stood when the battle started
     private boolean hasWinner = false;
     private String winReason = "";
     private boolean isDraw = false;
+    private CenterGrid centerGrid; // Red/blue ownership of the center area
+    private int revision; // bumped whenever state, members or teams change (scoreboard dirty tracking)
 
     public Game(String id, String arenaId) {
         this.id = id;
         this.arenaId = arenaId;
+        this.sequence = gamesCreated++;
         this.state = GameState.WAITING;
         this.players = new HashSet<>();
     }
@@ -43,18 +59,56 @@ public class Game {
         return arenaId;
     }
 
+    /**
+     * Position of this game in creation order; older games have smaller numbers
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
     public GameState getState() {
         return state;
     }
 
     public void setState(GameState newState) {
-        this.state = newState;
+        if (this.state != newState) {
+            this.state = newState;
+            revision++;
+            if (gameManager != null) {
+                gameManager.requeue(this);
+            }
+        }
+    }
+
+    /**
+     * Whether new players can join: not full, and still waiting or choosing kits
+     */
+    public boolean isOpen() {
+        return players.size() < MAX_PLAYERS
+                && (state == GameState.WAITING || state == GameState.KIT_SELECTION);
+    }
+
+    /**
+     * Counter that changes whenever anything shown on the scoreboard changes
+     */
+    public int getRevision() {
+        return revision;
     }
 
     public String getTimerId() {
         return "game_" + this.id;
     }
 
+    void attach(GameManager gameManager) {
+        this.gameManager = gameManager;
+        if (gameManager != null) {
+            for (UUID playerId : players) {
+                gameManager.indexPlayer(playerId, this);
+            }
+            gameManager.requeue(this);
+        }
+    }
+
     public boolean addPlayer(Player player) {
         if (players.contains(player.getUniqueId())) {
             VirtualPlayerUtil.safeSendMessage(player, "You are already in the game!");
@@ -72,6 +126,14 @@ public class Game {
         }
 
         players.add(player.getUniqueId());
+        if (VirtualPlayerUtil.isSafelyOnline(player)) {
+            addOnline(player);
+        }
+        revision++;
+        if (gameManager != null) {
+            gameManager.indexPlayer(player.getUniqueId(), this);
+            gameManager.requeue(this);
+        }
 
         // Auto-assign team based on current team sizes
         assignPlayerToTeam(player);
@@ -83,7 +145,46 @@ public class Game {
     }
 
     public void removePlayer(Player player) {
-        players.remove(player.getUniqueId());
+        if (players.remove(player.getUniqueId())) {
+            dropOnline(player.getUniqueId());
+            playerTeams.remove(player.getUniqueId());
+            kitChosen.remove(player.getUniqueId());
+            revision++;
+            if (gameManager != null) {
+                gameManager.unindexPlayer(player.getUniqueId(), this);
+                gameManager.requeue(this);
+            }
+        }
+    }
+
+    /**
+     * A member logged back in; track their new Player handle
+     */
+    public void playerConnected(Player player) {
+        if (players.contains(player.getUniqueId()) && VirtualPlayerUtil.isSafelyOnline(player)) {
+            dropOnline(player.getUniqueId()); // stale handle from the last session
+            addOnline(player);
+        }
+    }
+
+    /**
+     * A member logged out; they stay in the game but leave the online roster
+     */
+    public void playerDisconnected(Player player) {
+        dropOnline(player.getUniqueId());
+    }
+
+    private void addOnline(Player player) {
+        Set<Player> updated = new LinkedHashSet<>(onlinePlayers);
+        updated.add(player);
+        onlinePlayers = Collections.unmodifiableSet(updated);
+    }
+
+    private void dropOnline(UUID playerId) {
+        Set<Player> updated = new LinkedHashSet<>(onlinePlayers);
+        if (updated.removeIf(online -> online.getUniqueId().equals(playerId))) {
+            onlinePlayers = Collections.unmodifiableSet(updated);
+        }
     }
 
     public void startGame() { // Teleport the players to the arena spawn points (below)
@@ -91,11 +192,8 @@ public class Game {
         // be
         // removed, Game Starts
         // Handle the game logic here
-        for (UUID playerId : players) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (player != null && VirtualPlayerUtil.canPerformNetworkOperations(player)) {
-                // TODO: tp the player to the arena spawn point (get it from the config)
-            }
+        for (Player player : onlinePlayers) {
+            // TODO: tp the player to the arena spawn point (get it from the config)
         }
     }
 
@@ -107,29 +205,54 @@ public class Game {
         this.arenaLocation = arenaLocation;
     }
 
+    /**
+     * This game's own view of its arena, positioned on its arena instance, or
+     * null if it plays on the arena as configured
+     */
+    public RuntimeArena getArena() {
+        return arena;
+    }
+
+    public void setArena(RuntimeArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Read-only snapshot of the online members. Joins, leaves and reconnects
+     * replace the roster instead of changing the returned set, so it is safe
+     * to iterate while moving or removing players.
+     */
     public Set<Player> getPlayers() {
-        Set<Player> onlinePlayers = new HashSet<>();
-        for (UUID playerId : players) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (player != null && VirtualPlayerUtil.isSafelyOnline(player)) {
-                onlinePlayers.add(player);
-            }
-        }
         return onlinePlayers;
     }
 
     /**
-     * Get only real (non-virtual) players for network operations
+     * Get only real (non-virtual) players for network operations. Virtual
+     * players never enter the online roster, so this is the same snapshot as
+     * {@link #getPlayers()}.
      */
     public Set<Player> getRealPlayers() {
-        Set<Player> realPlayers = new HashSet<>();
-        for (UUID playerId : players) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (VirtualPlayerUtil.canPerformNetworkOperations(player)) {
-                realPlayers.add(player);
-            }
+        return onlinePlayers;
+    }
+
+    /**
+     * Visit each online member without building a collection
+     */
+    public void forEachOnline(Consumer<? super Player> action) {
+        for (Player player : onlinePlayers) {
+            action.accept(player);
         }
-        return realPlayers;
+    }
+
+    /**
+     * Get the UUIDs of all members, including offline and virtual players
+     */
+    public Set<UUID> getPlayerIds() {
+        return Collections.unmodifiableSet(players);
+    }
+
+    public boolean hasPlayer(UUID playerId) {
+        return players.contains(playerId);
     }
 
     public int getPlayerCount() {
@@ -142,7 +265,20 @@ public class Game {
     }
 
     public void setPlayerTeam(Player player, TeamColor team) {
-        playerTeams.put(player.getUniqueId(), team);
+        if (playerTeams.put(player.getUniqueId(), team) != team) {
+            revision++;
+        }
+    }
+
+    /**
+     * Whether the player has already picked a kit this game
+     */
+    public boolean hasChosenKit(Player player) {
+        return kitChosen.contains(player.getUniqueId());
+    }
+
+    public void setKitChosen(Player player) {
+        kitChosen.add(player.getUniqueId());
     }
 
     public Map<TeamColor, Integer> getTeamCounts() {
@@ -161,8 +297,28 @@ public class Game {
     }
 
     public Set<UUID> getTeamPlayers(TeamColor team) {
+        return membersOf(playerTeams, team);
+    }
+
+    /**
+     * Record the teams as they are now, for rating the result. Members who
+     * leave afterwards still count.
+     */
+    public void lockBattleTeams() {
+        battleTeams = new HashMap<>(playerTeams);
+    }
+
+    /**
+     * A team's members when the battle started, or its current members if
+     * it hasn't started
+     */
+    public Set<UUID> getBattleTeamPlayers(TeamColor team) {
+        return membersOf(battleTeams != null ? battleTeams : playerTeams, team);
+    }
+
+    private static Set<UUID> membersOf(Map<UUID, TeamColor> teams, TeamColor team) {
         Set<UUID> teamPlayers = new HashSet<>();
-        for (Map.Entry<UUID, TeamColor> entry : playerTeams.entrySet()) {
+        for (Map.Entry<UUID, TeamColor> entry : teams.entrySet()) {
             if (entry.getValue() == team) {
                 teamPlayers.add(entry.getKey());
             }
@@ -171,41 +327,26 @@ public class Game {
     }
 
     // Game logic methods
-    public void calculateWinner(ArenaConfig arena) {
+    public void calculateWinner(RuntimeArena arena) {
         // Reset previous state
         hasWinner = false;
         isDraw = false;
         winReason = "";
 
         // Get the center box coordinates from arena config
-        if (arena == null || arena.centerBox == null) {
+        if (arena == null || !arena.hasCenter()) {
             winReason = "Arena center box not configured!";
             return;
         }
-        // Assume centerBox has x1, y1, z1, x2, y2, z2
-        int minX = Math.min(arena.centerBox.x1, arena.centerBox.x2);
-        int maxX = Math.max(arena.centerBox.x1, arena.centerBox.x2);
-        int minZ = Math.min(arena.centerBox.z1, arena.centerBox.z2);
-        int maxZ = Math.max(arena.centerBox.z1, arena.centerBox.z2);
-        int y = arena.centerBox.y1;
-        org.bukkit.World world = org.bukkit.Bukkit.getWorld(arena.world);
-        if (world == null) {
+        CenterGrid grid = getCenterGrid(arena);
+        if (grid == null) {
             winReason = "Arena world not found!";
             return;
         }
 
-        int redCount = 0, blueCount = 0;
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                org.bukkit.block.Block block = world.getBlockAt(x, y, z);
-                if (block.getType() == org.bukkit.Material.RED_WOOL) {
-                    redCount++;
-                } else if (block.getType() == org.bukkit.Material.BLUE_WOOL) {
-                    blueCount++;
-                }
-            }
-        }
-        int boxSize = (maxX - minX + 1) * (maxZ - minZ + 1);
+        int redCount = grid.getRedCount();
+        int blueCount = grid.getBlueCount();
+        int boxSize = grid.getSize();
         if (redCount == boxSize) {
             hasWinner = true;
             winReason = "Red team filled the center!";
@@ -251,70 +392,99 @@ public class Game {
         return null;
     }
 
-    public String getWoolCountInfo(ArenaConfig arena) {
-        if (arena == null || arena.centerBox == null) {
+    public String getWoolCountInfo(RuntimeArena arena) {
+        if (arena == null || !arena.hasCenter()) {
             return "Arena center box not configured!";
         }
-        int minX = Math.min(arena.centerBox.x1, arena.centerBox.x2);
-        int maxX = Math.max(arena.centerBox.x1, arena.centerBox.x2);
-        int minZ = Math.min(arena.centerBox.z1, arena.centerBox.z2);
-        int maxZ = Math.max(arena.centerBox.z1, arena.centerBox.z2);
-        int y = arena.centerBox.y1;
-        org.bukkit.World world = org.bukkit.Bukkit.getWorld(arena.world);
-
-        if (world == null) {
+        CenterGrid grid = getCenterGrid(arena);
+        if (grid == null) {
             return "Arena world not found!";
         }
 
-        int redCount = 0, blueCount = 0;
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                org.bukkit.block.Block block = world.getBlockAt(x, y, z);
-                if (block.getType() == org.bukkit.Material.RED_WOOL) {
-                    redCount++;
-                } else if (block.getType() == org.bukkit.Material.BLUE_WOOL) {
-                    blueCount++;
-                }
-            }
-        }
+        int redCount = grid.getRedCount();
+        int blueCount = grid.getBlueCount();
 
         return ChatColor.RED + "Red wool: " + redCount + ChatColor.RESET + " | " +
                 ChatColor.BLUE + "Blue wool: " + blueCount;
     }
 
     /**
-     * Check if a block placement location is within the center area
+     * Record a block change in the center area. Called by the place/break
+     * listeners so win checks can use the in-memory grid.
      */
-    public boolean isValidPlacementLocation(org.bukkit.Location location, ArenaConfig arena) {
-        if (arena == null || arena.centerBox == null) {
-            return false;
+    public void recordCenterBlock(org.bukkit.block.Block block) {
+        recordCenterBlock(block, block.getType());
+    }
+
+    public void recordCenterBlock(org.bukkit.block.Block block, org.bukkit.Material newType) {
+        if (centerGrid != null) {
+            centerGrid.update(block.getX(), block.getY(), block.getZ(), newType);
+        }
+    }
+
+    /**
+     * Resync the center grid with the world (game start and end)
+     */
+    public void reconcileCenterGrid(RuntimeArena arena) {
+        if (arena == null || !arena.hasCenter()) {
+            return;
+        }
+        org.bukkit.World world = arena.getWorld();
+        if (world == null) {
+            return;
         }
-        int minX = Math.min(arena.centerBox.x1, arena.centerBox.x2);
-        int maxX = Math.max(arena.centerBox.x1, arena.centerBox.x2);
-        int minZ = Math.min(arena.centerBox.z1, arena.centerBox.z2);
-        int maxZ = Math.max(arena.centerBox.z1, arena.centerBox.z2);
-        int y = arena.centerBox.y1;
+        if (centerGrid == null) {
+            centerGrid = new CenterGrid(arena.getCenterBox());
+        }
+        centerGrid.reconcile(world);
+    }
 
-        return location.getBlockX() >= minX && location.getBlockX() <= maxX &&
-                location.getBlockZ() >= minZ && location.getBlockZ() <= maxZ &&
-                location.getBlockY() == y;
+    private CenterGrid getCenterGrid(RuntimeArena arena) {
+        if (centerGrid == null) {
+            reconcileCenterGrid(arena);
+        }
+        return centerGrid;
     }
 
     /**
-     * Assign a player to the team with fewer players
+     * Check if a block placement location is within the center area
      */
-    private void assignPlayerToTeam(Player player) {
-        Map<TeamColor, Integer> teamCounts = getTeamCounts();
+    public boolean isValidPlacementLocation(org.bukkit.Location location, RuntimeArena arena) {
+        return arena != null &&
+                arena.isInCenter(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public boolean isValidPlacementLocation(org.bukkit.block.Block block, RuntimeArena arena) {
+        return arena != null && arena.isInCenter(block.getX(), block.getY(), block.getZ());
+    }
 
+    /**
+     * Assign a player to the team with fewer players, or with equal numbers to
+     * the team with the lower total rating. Joining strongest first, as the
+     * join batches do, keeps the rating totals close.
+     */
+    private void assignPlayerToTeam(Player player) {
         // For demo, we only use RED and BLUE teams
-        int redCount = teamCounts.get(TeamColor.RED);
-        int blueCount = teamCounts.get(TeamColor.BLUE);
+        int redCount = 0;
+        int blueCount = 0;
+        long redRating = 0;
+        long blueRating = 0;
+        for (Map.Entry<UUID, TeamColor> entry : playerTeams.entrySet()) {
+            int rating = gameManager != null ? gameManager.getRating(entry.getKey()) : 0;
+            if (entry.getValue() == TeamColor.RED) {
+                redCount++;
+                redRating += rating;
+            } else if (entry.getValue() == TeamColor.BLUE) {
+                blueCount++;
+                blueRating += rating;
+            }
+        }
 
         TeamColor assignedTeam;
-        if (redCount <= blueCount) {
-            assignedTeam = TeamColor.RED;
+        if (redCount != blueCount) {
+            assignedTeam = redCount < blueCount ? TeamColor.RED : TeamColor.BLUE;
         } else {
-            assignedTeam = TeamColor.BLUE;
+            assignedTeam = redRating <= blueRating ? TeamColor.RED : TeamColor.BLUE;
         }
 
         setPlayerTeam(player, assignedTeam);
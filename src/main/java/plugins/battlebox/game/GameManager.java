@@ -1,18 +1,34 @@
 package plugins.battlebox.game;
 
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import plugins.battlebox.arena.ArenaInstance;
+import plugins.battlebox.arena.ChunkIndex;
+import plugins.battlebox.arena.RuntimeArena;
 import plugins.battlebox.managers.ArenaInstanceManager;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
 
 public class GameManager {
     private final HashMap<String, Game> activeGames;
+    private final Map<UUID, Game> playerGames; // player UUID -> game, kept in sync by Game.addPlayer/removePlayer
+    private final ChunkIndex<Game> arenaIndex; // chunks covered by each game's arena
+    private final MatchmakingQueue matchmaking; // open games per arena, by fill level
+    private long nextGameNumber = 1;
+    private ToIntFunction<UUID> ratings = playerId -> 0; // skill rating used to balance teams
     private final ArenaInstanceManager arenaInstanceManager;
 
     public GameManager(ArenaInstanceManager arenaInstanceManager) {
         this.activeGames = new HashMap<>();
+        this.playerGames = new HashMap<>();
+        this.arenaIndex = new ChunkIndex<>();
+        this.matchmaking = new MatchmakingQueue();
         this.arenaInstanceManager = arenaInstanceManager;
     }
     
@@ -30,28 +46,74 @@ public class GameManager {
         }
         
         game.setArenaLocation(instance.getInstanceLocation());
+        game.attach(this);
         activeGames.put(gameId, game);
         return true;
     }
     
     public void createGame(String name, Game game) {
+        game.attach(this);
         activeGames.put(name, game);
     }
 
     public void removeGame(String gameId) {
         Game game = activeGames.get(gameId);
         if (game != null) {
-            // Find and release the arena instance
-            for (ArenaInstance instance : arenaInstanceManager.getInstances().values()) {
-                if (instance.getCurrentGame() == game) {
-                    arenaInstanceManager.releaseArena(instance);
-                    break;
-                }
+            // Release the arena instance the game holds, if any
+            arenaInstanceManager.releaseArenaForGame(game.getId());
+
+            // Drop the game's members from the player index
+            for (UUID playerId : game.getPlayerIds()) {
+                playerGames.remove(playerId, game);
             }
+            arenaIndex.remove(game);
+            matchmaking.remove(game);
+            game.attach(null);
         }
         activeGames.remove(gameId);
     }
 
+    /**
+     * Claim an instance of an arena template for a game, placing the game at
+     * it: spawns, center and kit buttons all move onto the instance. Returns
+     * false if no instance is ready.
+     */
+    public boolean assignInstance(Game game, String templateId, RuntimeArena arena) {
+        ArenaInstance instance = arenaInstanceManager.assignArenaToGame(templateId, game);
+        if (instance == null) {
+            return false;
+        }
+        game.setArenaLocation(instance.getInstanceLocation());
+        if (arena != null) {
+            game.setArena(instance.locate(arena));
+        }
+        return true;
+    }
+
+    public ArenaInstanceManager getArenaInstanceManager() {
+        return arenaInstanceManager;
+    }
+
+    /**
+     * A game id not used by any active game. Ids come from a counter, so games
+     * created on the same tick never clash.
+     */
+    public String nextGameId() {
+        String gameId;
+        do {
+            gameId = "game_" + nextGameNumber++;
+        } while (activeGames.containsKey(gameId));
+        return gameId;
+    }
+
+    /**
+     * The best open game for an arena (the fullest that still has room), or
+     * null if every game there is full or under way
+     */
+    public Game findOpenGame(String arenaId) {
+        return matchmaking.best(arenaId);
+    }
+
     public Game getGame(String name) {
         return activeGames.get(name);
     }
@@ -70,23 +132,87 @@ public class GameManager {
     }
     
     public boolean removePlayerFromGame(Player player) {
-        for (Game game : activeGames.values()) {
-            if (game.getPlayers().contains(player)) {
-                game.removePlayer(player);
-                return true;
-            }
+        Game game = playerGames.get(player.getUniqueId());
+        if (game == null) {
+            return false;
         }
-        return false;
+        game.removePlayer(player);
+        return true;
     }
     
     public Game getPlayerGame(Player player) {
-        for (Game game : activeGames.values()) {
-            if (game.getPlayers().contains(player)) {
+        return playerGames.get(player.getUniqueId());
+    }
+
+    public Game getPlayerGame(UUID playerId) {
+        return playerGames.get(playerId);
+    }
+
+    /**
+     * Fast check for players that are not part of any game
+     */
+    public boolean isInGame(Player player) {
+        return playerGames.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * Register the area a game is played in, so block events there can be
+     * routed straight to it
+     */
+    public void indexArena(Game game, RuntimeArena arena) {
+        World world = arena != null ? arena.getWorld() : null;
+        if (world == null || !arena.hasRegion()) {
+            return;
+        }
+        arenaIndex.add(game, world, arena.getRegionMinX(), arena.getRegionMinZ(),
+                arena.getRegionMaxX(), arena.getRegionMaxZ());
+    }
+
+    /**
+     * Whether a block lies in a chunk used by any running game's arena
+     */
+    public boolean isArenaBlock(Block block) {
+        return arenaIndex.contains(block.getWorld(), block.getX(), block.getZ());
+    }
+
+    /**
+     * The player's game, if its arena covers the block's chunk
+     */
+    public Game getPlayerGameAt(Player player, Block block) {
+        List<Game> games = arenaIndex.get(block.getWorld(), block.getX(), block.getZ());
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            if (game.hasPlayer(player.getUniqueId())) {
                 return game;
             }
         }
         return null;
     }
+
+    // Player index maintenance - called by Game when its membership changes
+    void indexPlayer(UUID playerId, Game game) {
+        playerGames.put(playerId, game);
+    }
+
+    void unindexPlayer(UUID playerId, Game game) {
+        playerGames.remove(playerId, game);
+    }
+
+    /**
+     * Where games look up player ratings when picking teams
+     */
+    public void setRatingLookup(ToIntFunction<UUID> ratings) {
+        this.ratings = ratings;
+    }
+
+    int getRating(UUID playerId) {
+        return ratings.applyAsInt(playerId);
+    }
+
+    // Called by Game when its state or player count changes
+    void requeue(Game game) {
+        matchmaking.update(game);
+    }
     
     // Game statistics methods
     public int getActiveGameCount() {
@@ -0,0 +1,54 @@
+package plugins.battlebox.game;
+
+/**
+ * Steps of a game's lifecycle as driven by the game loop. Each timed phase
+ * ends after its duration and the loop hands the game to the next one;
+ * WAITING lasts until enough players have joined.
+ */
+public enum GamePhase {
+    WAITING(GameState.WAITING, 0, null),
+    LOBBY_COUNTDOWN(GameState.WAITING, 30, "WAITING FOR PLAYERS"),
+    KIT_SELECTION(GameState.KIT_SELECTION, 30, "KIT SELECTION"),
+    STARTING(GameState.KIT_SELECTION, 5, "GAME STARTING"),
+    BATTLE(GameState.IN_PROGRESS, 120, "BATTLE BOX"),
+    VICTORY(GameState.ENDING, 20, "VICTORY");
+
+    private final GameState state;
+    private final int seconds;
+    private final String title;
+
+    GamePhase(GameState state, int seconds, String title) {
+        this.state = state;
+        this.seconds = seconds;
+        this.title = title;
+    }
+
+    /**
+     * The game state while in this phase
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Length of the phase, or 0 if it doesn't end on a timer
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public long getDurationTicks() {
+        return seconds * 20L;
+    }
+
+    public boolean isTimed() {
+        return seconds > 0;
+    }
+
+    /**
+     * Countdown title shown on the scoreboard, or null if untimed
+     */
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,82 @@
+package plugins.battlebox.game;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Open games per arena, bucketed by how many players they hold. Picking the
+ * best game to join looks at no more than {@link Game#MAX_PLAYERS} buckets,
+ * however many games are running. Each bucket is ordered by creation
+ * ({@link Game#getSequence()}), so a game keeps its place among equals when it
+ * is re-filed. Kept up to date by {@link GameManager} as games change state
+ * or gain and lose players. Main thread only.
+ */
+public class MatchmakingQueue {
+    private static final Comparator<Game> CREATION_ORDER = Comparator.comparingLong(Game::getSequence);
+
+    private final Map<String, Set<Game>[]> arenas = new HashMap<>(); // arena id -> games by player count
+    private final Map<Game, Integer> queued = new IdentityHashMap<>(); // game -> bucket it sits in
+
+    /**
+     * Re-file a game after its state or player count changed, dropping it if
+     * it can no longer be joined
+     */
+    public void update(Game game) {
+        int fill = game.isOpen() ? game.getPlayerCount() : -1;
+        Integer current = queued.get(game);
+        if (current != null && current == fill) {
+            return;
+        }
+        remove(game);
+        if (fill < 0) {
+            return;
+        }
+        Set<Game>[] buckets = arenas.computeIfAbsent(game.getArenaId(), id -> newBuckets());
+        buckets[fill].add(game);
+        queued.put(game, fill);
+    }
+
+    public void remove(Game game) {
+        Integer fill = queued.remove(game);
+        if (fill == null) {
+            return;
+        }
+        Set<Game>[] buckets = arenas.get(game.getArenaId());
+        buckets[fill].remove(game);
+    }
+
+    /**
+     * The fullest open game for an arena, oldest first among equals, or null
+     * if none is open. Filling games up before opening new ones gets matches
+     * started sooner.
+     */
+    public Game best(String arenaId) {
+        Set<Game>[] buckets = arenas.get(arenaId);
+        if (buckets == null) {
+            return null;
+        }
+        for (int fill = buckets.length - 1; fill >= 0; fill--) {
+            if (!buckets[fill].isEmpty()) {
+                return buckets[fill].iterator().next();
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return queued.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Game>[] newBuckets() {
+        Set<Game>[] buckets = new Set[Game.MAX_PLAYERS];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new TreeSet<>(CREATION_ORDER);
+        }
+        return buckets;
+    }
+}
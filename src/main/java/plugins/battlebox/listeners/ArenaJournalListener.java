@@ -0,0 +1,61 @@
+package plugins.battlebox.listeners;
+
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import plugins.battlebox.arena.ArenaInstance;
+import plugins.battlebox.managers.ArenaInstanceManager;
+
+/**
+ * Records the original state of every block changed inside an in-use arena
+ * instance, so the arena can be restored without re-pasting the schematic.
+ * Runs at MONITOR so only changes that actually happen are journaled.
+ */
+public class ArenaJournalListener implements Listener {
+
+    private final ArenaInstanceManager arenaInstanceManager;
+
+    public ArenaJournalListener(ArenaInstanceManager arenaInstanceManager) {
+        this.arenaInstanceManager = arenaInstanceManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent e) {
+        ArenaInstance instance = arenaInstanceManager.getActiveInstanceAt(e.getBlock());
+        if (instance != null) {
+            instance.recordOriginal(e.getBlockReplacedState());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent e) {
+        record(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent e) {
+        record(e.getBlock());
+        for (Block block : e.blockList()) {
+            record(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent e) {
+        for (Block block : e.blockList()) {
+            record(block);
+        }
+    }
+
+    private void record(Block block) {
+        ArenaInstance instance = arenaInstanceManager.getActiveInstanceAt(block);
+        if (instance != null) {
+            instance.recordOriginal(block);
+        }
+    }
+}
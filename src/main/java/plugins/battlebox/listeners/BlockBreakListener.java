@@ -2,14 +2,16 @@ package plugins.battlebox.listeners;
 
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import plugins.battlebox.game.Game;
 import plugins.battlebox.game.GameManager;
 import plugins.battlebox.managers.ArenaManager;
-import config.ArenaConfig;
+import plugins.battlebox.arena.RuntimeArena;
 
 public class BlockBreakListener implements Listener {
 
@@ -31,8 +33,19 @@ public class BlockBreakListener implements Listener {
             return;
         }
         
-        // Check if player is in a game
-        Game game = gameManager.getPlayerGame(player);
+        // Blocks outside every running arena are never editable; skip the per-game lookup
+        if (!gameManager.isArenaBlock(e.getBlock())) {
+            e.setCancelled(true);
+            if (gameManager.isInGame(player)) {
+                player.sendMessage(ChatColor.RED + "You can only break blocks in the center area!");
+            } else {
+                player.sendMessage(ChatColor.RED + "You can only break blocks while in a BattleBox game!");
+            }
+            return;
+        }
+        
+        // Check if player is in the game played here
+        Game game = gameManager.getPlayerGameAt(player, e.getBlock());
         if (game == null) {
             e.setCancelled(true);
             player.sendMessage(ChatColor.RED + "You can only break blocks while in a BattleBox game!");
@@ -40,7 +53,7 @@ public class BlockBreakListener implements Listener {
         }
         
         // Get arena config
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
         if (arena == null) {
             e.setCancelled(true);
             player.sendMessage(ChatColor.RED + "Arena configuration not found!");
@@ -55,7 +68,7 @@ public class BlockBreakListener implements Listener {
         }
         
         // Check if block breaking is in valid area (center 3x3)
-        if (!game.isValidPlacementLocation(e.getBlock().getLocation(), arena)) {
+        if (!game.isValidPlacementLocation(e.getBlock(), arena)) {
             e.setCancelled(true);
             player.sendMessage(ChatColor.RED + "You can only break blocks in the center area!");
             return;
@@ -65,4 +78,20 @@ public class BlockBreakListener implements Listener {
         e.setDropItems(false);
         player.sendMessage(ChatColor.GREEN + "Block broken!");
     }
+
+    /**
+     * Keep the game's center grid in sync once the break has gone through.
+     * Runs after every other plugin, and not at all if one of them cancelled
+     * the event.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBroken(BlockBreakEvent e) {
+        if (!gameManager.isArenaBlock(e.getBlock())) {
+            return;
+        }
+        Game game = gameManager.getPlayerGameAt(e.getPlayer(), e.getBlock());
+        if (game != null && game.getState() == plugins.battlebox.game.GameState.IN_PROGRESS) {
+            game.recordCenterBlock(e.getBlock(), Material.AIR); // Block still holds its old type here
+        }
+    }
 }
@@ -12,7 +12,7 @@ import plugins.battlebox.core.PlayerService;
 import plugins.battlebox.game.Game;
 import plugins.battlebox.game.GameState;
 import plugins.battlebox.managers.ArenaManager;
-import config.ArenaConfig;
+import plugins.battlebox.arena.RuntimeArena;
 
 /**
  * Clean block placement listener
@@ -52,14 +52,14 @@ public class BlockListener implements Listener {
             return;
         }
         
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
         if (arena == null) {
             event.setCancelled(true);
             return;
         }
         
         // Check valid placement location (center area)
-        if (!game.isValidPlacementLocation(event.getBlock().getLocation(), arena)) {
+        if (!game.isValidPlacementLocation(event.getBlock(), arena)) {
             event.setCancelled(true);
             player.sendMessage(ChatColor.RED + "You can only place blocks in the center area!");
             return;
@@ -75,6 +75,8 @@ public class BlockListener implements Listener {
             return;
         }
         
+        game.recordCenterBlock(event.getBlock());
+
         // Auto-refill wool after placement
         playerService.refillWool(player, team);
         
@@ -82,7 +84,7 @@ public class BlockListener implements Listener {
         checkForInstantWin(game, arena);
     }
     
-    private void checkForInstantWin(Game game, ArenaConfig arena) {
+    private void checkForInstantWin(Game game, RuntimeArena arena) {
         game.calculateWinner(arena);
         if (game.hasWinner()) {
             gameService.endGame(game);
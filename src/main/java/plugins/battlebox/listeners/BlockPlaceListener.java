@@ -3,8 +3,10 @@ package plugins.battlebox.listeners;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.inventory.ItemStack;
@@ -14,7 +16,7 @@ import plugins.battlebox.core.GameService;
 import plugins.battlebox.core.MusicService;
 import plugins.battlebox.managers.ArenaManager;
 import plugins.battlebox.managers.TimerManager;
-import config.ArenaConfig;
+import plugins.battlebox.arena.RuntimeArena;
 
 public class BlockPlaceListener implements Listener {
 
@@ -42,8 +44,20 @@ public class BlockPlaceListener implements Listener {
             return; // Allow placement
         }
 
-        // Check if player is in a game
-        Game game = gameManager.getPlayerGame(player);
+        // Blocks outside every running arena are never editable; skip the per-game lookup
+        Block block = e.getBlockPlaced();
+        if (!gameManager.isArenaBlock(block)) {
+            e.setCancelled(true);
+            if (gameManager.isInGame(player)) {
+                player.sendMessage(ChatColor.RED + "You can only place blocks in the center area!");
+            } else {
+                player.sendMessage(ChatColor.RED + "You can only place blocks while in a BattleBox game!");
+            }
+            return;
+        }
+
+        // Check if player is in the game played here
+        Game game = gameManager.getPlayerGameAt(player, block);
         if (game == null) {
             e.setCancelled(true);
             player.sendMessage(ChatColor.RED + "You can only place blocks while in a BattleBox game!");
@@ -51,7 +65,7 @@ public class BlockPlaceListener implements Listener {
         }
 
         // Get arena config
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
         if (arena == null) {
             e.setCancelled(true);
             player.sendMessage(ChatColor.RED + "Arena configuration not found!");
@@ -66,16 +80,16 @@ public class BlockPlaceListener implements Listener {
         }
 
         // Check if block placement is in valid area (center 3x3)
-        if (!game.isValidPlacementLocation(e.getBlockPlaced().getLocation(), arena)) {
+        if (!game.isValidPlacementLocation(e.getBlockPlaced(), arena)) {
             e.setCancelled(true);
             org.bukkit.Location loc = e.getBlockPlaced().getLocation();
             player.sendMessage(ChatColor.RED + "You can only place blocks in the center area!");
             player.sendMessage(ChatColor.GRAY + "Attempted location: " + loc.getBlockX() + ", " + loc.getBlockY() + ", "
                     + loc.getBlockZ());
-            if (arena.centerBox != null) {
-                player.sendMessage(ChatColor.GRAY + "Center area: " + arena.centerBox.x1 + "," + arena.centerBox.y1
-                        + "," + arena.centerBox.z1 +
-                        " to " + arena.centerBox.x2 + "," + arena.centerBox.y2 + "," + arena.centerBox.z2);
+            if (arena.hasCenter()) {
+                player.sendMessage(ChatColor.GRAY + "Center area: " + arena.getCenterMinX() + "," + arena.getCenterY()
+                        + "," + arena.getCenterMinZ() +
+                        " to " + arena.getCenterMaxX() + "," + arena.getCenterY() + "," + arena.getCenterMaxZ());
             } else {
                 player.sendMessage(ChatColor.RED + "Center box not configured for this arena!");
             }
@@ -102,8 +116,27 @@ public class BlockPlaceListener implements Listener {
         refillWool(player, playerTeam);
 
         player.sendMessage(ChatColor.GREEN + "Wool placed successfully!");
+    }
+
+    /**
+     * Keep the game's center grid in sync once the placement has gone
+     * through. Runs after every other plugin, and not at all if one of them
+     * cancelled the event.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlaced(BlockPlaceEvent e) {
+        Block block = e.getBlockPlaced();
+        if (!gameManager.isArenaBlock(block)) {
+            return;
+        }
+        Game game = gameManager.getPlayerGameAt(e.getPlayer(), block);
+        if (game == null || game.getState() != plugins.battlebox.game.GameState.IN_PROGRESS) {
+            return;
+        }
+        game.recordCenterBlock(block);
 
-        // Check for instant win after successful placement
+        // Check for instant win after successful placement (grid lookup, no world scan)
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
         org.bukkit.Bukkit.getScheduler().runTaskLater(
                 org.bukkit.Bukkit.getPluginManager().getPlugin("BattleBox"),
                 () -> checkInstantWin(game, arena), 1L);
@@ -129,7 +162,12 @@ public class BlockPlaceListener implements Listener {
         }
     }
 
-    private void checkInstantWin(Game game, ArenaConfig arena) {
+    private void checkInstantWin(Game game, RuntimeArena arena) {
+        // Another placement may already have ended the game
+        if (game.getState() != plugins.battlebox.game.GameState.IN_PROGRESS) {
+            return;
+        }
+
         // Recalculate to check for instant win
         game.calculateWinner(arena);
 
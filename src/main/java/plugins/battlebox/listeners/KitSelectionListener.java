@@ -1,8 +1,7 @@
 package plugins.battlebox.listeners;
 
 import org.bukkit.ChatColor;
-import org.bukkit.Location;
-import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -11,8 +10,9 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import plugins.battlebox.core.GameService;
 import plugins.battlebox.core.KitService;
 import plugins.battlebox.game.Game;
+import plugins.battlebox.game.GameState;
 import plugins.battlebox.managers.ArenaManager;
-import config.ArenaConfig;
+import plugins.battlebox.arena.RuntimeArena;
 
 /**
  * Clean kit selection listener
@@ -33,50 +33,31 @@ public class KitSelectionListener implements Listener {
     public void onPlayerInteract(PlayerInteractEvent event) {
         if (event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
         if (event.getClickedBlock() == null) return;
-        if (!isButton(event.getClickedBlock().getType())) return;
+        if (!RuntimeArena.KIT_TRIGGER_MATERIALS.contains(event.getClickedBlock().getType())) return;
         
         Player player = event.getPlayer();
         Game game = gameService.getPlayerGame(player);
         
         if (game == null) {
-            player.sendMessage(ChatColor.GRAY + "Available kits: Healer, Fighter, Sniper, Speedster");
+            player.sendMessage(ChatColor.GRAY + "Available kits: " + kitService.describeKitTypes());
             return;
         }
         
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
-        if (arena == null || arena.kits == null) return;
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
+        if (arena == null) return;
         
         Game.TeamColor team = game.getPlayerTeam(player);
         if (team == null) return;
+        if (game.getState() != GameState.KIT_SELECTION || game.hasChosenKit(player)) return;
         
-        String kitType = findKitForButton(event.getClickedBlock().getLocation(), arena, team);
-        if (kitType != null) {
-            kitService.giveSpecialKit(player, kitType, team);
+        String kitType = findKitForButton(event.getClickedBlock(), arena, team);
+        if (kitType != null && kitService.giveSpecialKit(player, kitType, team)) {
+            game.setKitChosen(player);
             player.sendMessage(ChatColor.GREEN + "✓ " + kitType.toUpperCase() + " KIT SELECTED!");
         }
     }
     
-    private boolean isButton(Material material) {
-        return material.name().contains("BUTTON") || 
-               material.name().contains("PRESSURE_PLATE") ||
-               material == Material.LEVER;
-    }
-    
-    private String findKitForButton(Location clickedLoc, ArenaConfig arena, Game.TeamColor team) {
-        String teamPrefix = team == Game.TeamColor.RED ? "red_" : "blue_";
-        
-        for (config.Kit.Kit kit : arena.kits) {
-            if (kit.name.startsWith(teamPrefix) && kit.buttons != null) {
-                for (config.Kit.Button button : kit.buttons) {
-                    if (clickedLoc.getBlockX() == button.x && 
-                        clickedLoc.getBlockY() == button.y && 
-                        clickedLoc.getBlockZ() == button.z) {
-                        // Extract kit type (remove team prefix)
-                        return kit.name.substring(teamPrefix.length());
-                    }
-                }
-            }
-        }
-        return null;
+    private String findKitForButton(Block clicked, RuntimeArena arena, Game.TeamColor team) {
+        return arena.getKitType(clicked.getX(), clicked.getY(), clicked.getZ(), team);
     }
 }
@@ -4,24 +4,49 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import plugins.battlebox.core.GameService;
+import plugins.battlebox.core.MusicService;
+import plugins.battlebox.game.Game;
+import plugins.battlebox.game.GameManager;
 import plugins.battlebox.managers.ScoreboardManager;
 
 public class PlayerConnectionListener implements Listener {
     private final ScoreboardManager scoreboardManager;
+    private final MusicService musicService;
+    private final GameManager gameManager;
+    private final GameService gameService;
 
-    public PlayerConnectionListener(ScoreboardManager scoreboardManager) {
+    public PlayerConnectionListener(ScoreboardManager scoreboardManager, MusicService musicService,
+            GameManager gameManager, GameService gameService) {
         this.scoreboardManager = scoreboardManager;
+        this.musicService = musicService;
+        this.gameManager = gameManager;
+        this.gameService = gameService;
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         // Create scoreboard for the player when they join
         scoreboardManager.createScoreboard(event.getPlayer());
+        // Saved music settings load in the background
+        musicService.loadPlayerPreference(event.getPlayer());
+        // Rejoining members get their new handle back into the game's roster
+        Game game = gameManager.getPlayerGame(event.getPlayer());
+        if (game != null) {
+            game.playerConnected(event.getPlayer());
+        }
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         // Clean up scoreboard when player leaves
         scoreboardManager.removeScoreboard(event.getPlayer());
+        musicService.unloadPlayerPreference(event.getPlayer());
+        // Don't hold a place in an arena's line for someone who isn't here
+        gameService.leaveQueue(event.getPlayer());
+        Game game = gameManager.getPlayerGame(event.getPlayer());
+        if (game != null) {
+            game.playerDisconnected(event.getPlayer());
+        }
     }
 }
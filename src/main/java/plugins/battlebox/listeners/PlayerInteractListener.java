@@ -1,8 +1,6 @@
 package plugins.battlebox.listeners;
 
 import org.bukkit.ChatColor;
-import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -12,8 +10,9 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import plugins.battlebox.core.KitService;
 import plugins.battlebox.game.Game;
 import plugins.battlebox.game.GameManager;
+import plugins.battlebox.game.GameState;
 import plugins.battlebox.managers.ArenaManager;
-import config.ArenaConfig;
+import plugins.battlebox.arena.RuntimeArena;
 
 public class PlayerInteractListener implements Listener {
 
@@ -33,24 +32,23 @@ public class PlayerInteractListener implements Listener {
         Block block = e.getClickedBlock();
         if (block == null) return;
         
-        // Check if it's any type of button
-        Material blockType = block.getType();
-        if (!blockType.toString().contains("BUTTON")) return;
+        // Check if it's any type of button inside a running arena
+        if (!RuntimeArena.BUTTON_MATERIALS.contains(block.getType())) return;
+        if (!gameManager.isArenaBlock(block)) return;
 
         Player player = e.getPlayer();
-        Location clickedLoc = block.getLocation();
         
-        // Check if player is in a game
-        Game game = gameManager.getPlayerGame(player);
+        // Check if player is in the game played here
+        Game game = gameManager.getPlayerGameAt(player, block);
         if (game == null) {
             player.sendMessage(ChatColor.YELLOW + "Click buttons to select kits when you're in a BattleBox game!");
-            player.sendMessage(ChatColor.GRAY + "Available kits: Healer, Fighter, Sniper, Speedster");
+            player.sendMessage(ChatColor.GRAY + "Available kits: " + kitService.describeKitTypes());
             return;
         }
 
         // Get arena config
-        ArenaConfig arena = arenaManager.getArena(game.getArenaId());
-        if (arena == null || arena.kits == null) {
+        RuntimeArena arena = arenaManager.getRuntimeArena(game);
+        if (arena == null) {
             player.sendMessage(ChatColor.RED + "Arena configuration not found!");
             return;
         }
@@ -62,27 +60,28 @@ public class PlayerInteractListener implements Listener {
             return;
         }
 
+        // Kits are picked once, during kit selection
+        if (game.getState() != GameState.KIT_SELECTION) {
+            player.sendMessage(ChatColor.YELLOW + "You can only select a kit during kit selection!");
+            return;
+        }
+        if (game.hasChosenKit(player)) {
+            player.sendMessage(ChatColor.YELLOW + "You have already selected a kit!");
+            return;
+        }
+
         // Find matching kit button
-        String teamPrefix = playerTeam == Game.TeamColor.RED ? "red_" : "blue_";
-        
-        for (config.Kit.Kit kit : arena.kits) {
-            if (kit.name.startsWith(teamPrefix) && kit.buttons != null) {                for (config.Kit.Button button : kit.buttons) {
-                    if (clickedLoc.getBlockX() == button.x && 
-                        clickedLoc.getBlockY() == button.y && 
-                        clickedLoc.getBlockZ() == button.z) {
-                        
-                        // Extract kit type from name (remove team prefix)
-                        String kitType = kit.name.substring(teamPrefix.length());
-                        
-                        // Give the kit using KitService
-                        kitService.giveSpecialKit(player, kitType, playerTeam);
-                        return;
-                    }
-                }            }
+        String kitType = arena.getKitType(block.getX(), block.getY(), block.getZ(), playerTeam);
+        if (kitType != null) {
+            // Give the kit using KitService
+            if (kitService.giveSpecialKit(player, kitType, playerTeam)) {
+                game.setKitChosen(player);
+            }
+            return;
         }
         
         // If no kit found, show available kits
         player.sendMessage(ChatColor.YELLOW + "This button is not configured for a kit in your arena.");
-        player.sendMessage(ChatColor.GRAY + "Available kits: Healer, Fighter, Sniper, Speedster");
+        player.sendMessage(ChatColor.GRAY + "Available kits: " + kitService.describeKitTypes());
     }
 }
@@ -405,12 +405,7 @@ public class ArenaCreationManager {
      * Get arena by name
      */
     public ArenaConfig getArena(String arenaName) {
-        for (ArenaConfig arena : arenaManager.getArenas()) {
-            if (arena.id.equals(arenaName)) {
-                return arena;
-            }
-        }
-        return null;
+        return arenaManager.getArena(arenaName);
     }
     
     private boolean arenaExists(String arenaName) {
@@ -1,28 +1,48 @@
 package plugins.battlebox.managers;
 
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import plugins.battlebox.BattleBox;
 import plugins.battlebox.arena.ArenaInstance;
+import plugins.battlebox.arena.ArenaPasteEngine;
+import plugins.battlebox.arena.BlockJournal;
+import plugins.battlebox.arena.ChunkIndex;
 import plugins.battlebox.arena.ArenaTemplate;
+import plugins.battlebox.arena.SlotAllocator;
 import plugins.battlebox.game.Game;
 import config.ArenaConfig;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class ArenaInstanceManager {
     private final BattleBox plugin;
     private final Map<String, ArenaTemplate> templates;
     private final Map<String, ArenaInstance> instances;
     private final Map<String, List<String>> templateInstances; // templateId -> list of instanceIds
-    private final int INSTANCE_SPACING = 150; // blocks apart
+    private final Map<String, SlotAllocator> slotAllocators; // templateId -> placement of its instances
+    private final ChunkIndex<ArenaInstance> activeInstances; // chunks of instances currently journaling block changes
+    private final Map<String, ArenaInstance> gameInstances; // gameId -> instance it holds
+    private final ArenaPasteEngine pasteEngine;
+    private Consumer<String> capacityListener = templateId -> { }; // told when a template may have a free instance
+    private final int INSTANCE_MARGIN = 32; // blocks of empty space between neighbouring instances
+    private final int DEFAULT_FOOTPRINT = 150; // instance size when the schematic can't be read
     
     public ArenaInstanceManager(BattleBox plugin) {
         this.plugin = plugin;
         this.templates = new ConcurrentHashMap<>();
         this.instances = new ConcurrentHashMap<>();
         this.templateInstances = new ConcurrentHashMap<>();
+        this.slotAllocators = new ConcurrentHashMap<>();
+        this.activeInstances = new ChunkIndex<>();
+        this.gameInstances = new ConcurrentHashMap<>();
+        this.pasteEngine = new ArenaPasteEngine(plugin);
     }
     
     /**
@@ -30,15 +50,28 @@ public class ArenaInstanceManager {
      */
     public boolean registerTemplate(String templateId, String schematicName, Location baseLocation, 
                                    ArenaConfig config, int maxInstances) {
+        return registerTemplate(templateId, schematicName, baseLocation, config, maxInstances,
+                                ArenaTemplate.DEFAULT_MIN_IDLE, ArenaTemplate.DEFAULT_MAX_IDLE);
+    }
+    
+    /**
+     * Register a new arena template with an idle pool policy.
+     * minIdle instances are pasted in the background straight away.
+     */
+    public boolean registerTemplate(String templateId, String schematicName, Location baseLocation, 
+                                   ArenaConfig config, int maxInstances, int minIdle, int maxIdle) {
         if (templates.containsKey(templateId)) {
             return false;
         }
         
-        ArenaTemplate template = new ArenaTemplate(templateId, schematicName, baseLocation, config, maxInstances);
+        ArenaTemplate template = new ArenaTemplate(templateId, schematicName, baseLocation, config,
+                                                   maxInstances, minIdle, maxIdle);
         templates.put(templateId, template);
         templateInstances.put(templateId, new ArrayList<>());
+        slotAllocators.put(templateId, createSlotAllocator(template));
         
         plugin.getLogger().info("Registered arena template: " + templateId);
+        replenishPool(templateId);
         return true;
     }
     
@@ -57,94 +90,365 @@ public class ArenaInstanceManager {
             return null;
         }
         
-        String instanceId = templateId + "_instance_" + (instanceIds.size() + 1);
-        Location instanceLocation = calculateInstanceLocation(template.getBaseLocation(), instanceIds.size());
-        
-        // Paste the schematic at the instance location
-        plugin.pasteSchematic(template.getSchematicName(), instanceLocation);
+        SlotAllocator allocator = slotAllocators.get(templateId);
+        int slot = allocator.allocate();
+        String instanceId = templateId + "_instance_" + (slot + 1);
+        Location instanceLocation = calculateInstanceLocation(template, allocator, slot);
         
-        ArenaInstance instance = new ArenaInstance(instanceId, template, instanceLocation);
+        ArenaInstance instance = new ArenaInstance(instanceId, template, instanceLocation, slot);
+        setInstanceBounds(instance);
         instances.put(instanceId, instance);
         instanceIds.add(instanceId);
         
+        // Paste the schematic at the instance location over the next few ticks.
+        // A game assigned straight away gets it well before its waiting phase ends.
+        queuePaste(instance);
+        
         plugin.getLogger().info("Created arena instance: " + instanceId + " at " + 
                                instanceLocation.getBlockX() + ", " + instanceLocation.getBlockY() + ", " + instanceLocation.getBlockZ());
         return instance;
     }
     
     /**
-     * Get an available arena instance for a template
+     * Claim an available arena instance of a template for a game. Only
+     * instances whose paste has finished count as available.
+     * Instances are taken with a compare-and-set, so two games racing for the
+     * same instance can never both get it.
      */
-    public ArenaInstance getAvailableInstance(String templateId) {
+    private ArenaInstance claimInstance(String templateId, Game game) {
         List<String> instanceIds = templateInstances.get(templateId);
         if (instanceIds == null) {
             return null;
         }
         
-        // Look for an available instance
+        // Look for an available (already pasted) instance from the idle pool
         for (String instanceId : instanceIds) {
             ArenaInstance instance = instances.get(instanceId);
-            if (instance != null && !instance.isInUse()) {
+            if (instance != null && instance.isAvailable() && instance.tryClaim(game)) {
                 return instance;
             }
         }
         
-        // No available instance, try to create a new one
-        return createInstance(templateId);
+        // Pool ran dry. Start pasting one in the background; the capacity
+        // listener hears about it once it is ready.
+        warmInstance(templateId);
+        return null;
+    }
+    
+    /**
+     * Create one more instance of a template unless one is already being
+     * pasted for nobody, or the template is at maxInstances
+     */
+    private void warmInstance(String templateId) {
+        ArenaTemplate template = templates.get(templateId);
+        List<String> instanceIds = templateInstances.get(templateId);
+        if (template == null || instanceIds == null || instanceIds.size() >= template.getMaxInstances()) {
+            return;
+        }
+        for (String instanceId : instanceIds) {
+            ArenaInstance instance = instances.get(instanceId);
+            if (instance != null && !instance.isInUse() && instance.isResetting()) {
+                return;
+            }
+        }
+        createInstance(templateId);
     }
     
     /**
-     * Assign an arena to a game
+     * Assign an arena to a game. The instance is always one that has finished
+     * pasting; returns null if none is ready.
      */
     public ArenaInstance assignArenaToGame(String templateId, Game game) {
-        ArenaInstance instance = getAvailableInstance(templateId);
+        ArenaInstance instance = claimInstance(templateId, game);
         if (instance != null) {
-            instance.startGame(game);
+            gameInstances.put(game.getId(), instance);
+            indexActiveInstance(instance);
             plugin.getLogger().info("Assigned arena instance " + instance.getInstanceId() + " to game " + game.getId());
+            
+            // Top the idle pool back up outside the join path
+            schedulePoolMaintenance(templateId);
         }
         return instance;
     }
     
+    /**
+     * The template whose instances are copies of the given arena, or null if
+     * the arena isn't instanced
+     */
+    public String findTemplateForArena(String arenaId) {
+        for (ArenaTemplate template : templates.values()) {
+            ArenaConfig config = template.getConfig();
+            if (config != null && arenaId.equals(config.id)) {
+                return template.getTemplateId();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Whether a game could claim an instance of the template right now, that
+     * is, one is pasted and idle
+     */
+    public boolean hasCapacity(String templateId) {
+        List<String> instanceIds = templateInstances.get(templateId);
+        if (instanceIds == null) {
+            return false;
+        }
+        for (String instanceId : instanceIds) {
+            ArenaInstance instance = instances.get(instanceId);
+            if (instance != null && instance.isAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Run on the main thread with a template id after one of its instances is
+     * released or finishes resetting
+     */
+    public void setCapacityListener(Consumer<String> capacityListener) {
+        this.capacityListener = capacityListener;
+    }
+    
+    /**
+     * Get the arena instance held by a game, or null
+     */
+    public ArenaInstance getInstanceForGame(String gameId) {
+        return gameInstances.get(gameId);
+    }
+    
+    /**
+     * Release whatever arena instance a game holds
+     */
+    public void releaseArenaForGame(String gameId) {
+        releaseArena(gameInstances.get(gameId));
+    }
+    
     /**
      * Release an arena from a game and reset it
      */
     public void releaseArena(ArenaInstance instance) {
         if (instance == null) return;
         
-        Game game = instance.getCurrentGame();
-        String gameId = game != null ? game.getId() : "unknown";
+        Game game = instance.endGame();
+        if (game == null) {
+            return; // Already released
+        }
+        gameInstances.remove(game.getId(), instance);
+        synchronized (activeInstances) {
+            activeInstances.remove(instance);
+        }
+        
+        // Put back only the blocks touched during the game, unless too many changed
+        BlockJournal journal = instance.getJournal();
+        if (journal.isOverflowed()) {
+            plugin.getLogger().info("Block journal overflowed for " + instance.getInstanceId() + ", re-pasting schematic");
+            journal.clear();
+            resetArena(instance);
+        } else {
+            journal.restore(instance.getInstanceLocation().getWorld());
+            plugin.getLogger().info("Restored " + journal.size() + " blocks in arena instance " + instance.getInstanceId());
+            journal.clear();
+        }
+        
+        plugin.getLogger().info("Released arena instance " + instance.getInstanceId() + " from game " + game.getId());
+        String templateId = instance.getTemplate().getTemplateId();
+        schedulePoolMaintenance(templateId);
+        plugin.getServer().getScheduler().runTask(plugin, () -> capacityListener.accept(templateId));
+    }
+    
+    /**
+     * Run pool maintenance for a template on the next tick
+     */
+    private void schedulePoolMaintenance(String templateId) {
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            replenishPool(templateId);
+            evictExcessIdle(templateId);
+        });
+    }
+    
+    /**
+     * Create instances until the template has minIdle idle ones (or hits maxInstances)
+     */
+    private void replenishPool(String templateId) {
+        ArenaTemplate template = templates.get(templateId);
+        List<String> instanceIds = templateInstances.get(templateId);
+        if (template == null || instanceIds == null) {
+            return;
+        }
+        
+        int idle = getInstancesForTemplate(templateId).stream().mapToInt(i -> i.isInUse() ? 0 : 1).sum();
+        while (idle < template.getMinIdle() && instanceIds.size() < template.getMaxInstances()) {
+            if (createInstance(templateId) == null) {
+                break;
+            }
+            idle++;
+        }
+    }
+    
+    /**
+     * Drop the least recently used idle instances beyond the template's maxIdle
+     */
+    private void evictExcessIdle(String templateId) {
+        ArenaTemplate template = templates.get(templateId);
+        List<String> instanceIds = templateInstances.get(templateId);
+        if (template == null || instanceIds == null) {
+            return;
+        }
         
-        instance.endGame();
-        resetArena(instance);
+        List<ArenaInstance> idle = new ArrayList<>();
+        for (ArenaInstance instance : getInstancesForTemplate(templateId)) {
+            if (instance.isAvailable()) {
+                idle.add(instance);
+            }
+        }
+        if (idle.size() <= template.getMaxIdle()) {
+            return;
+        }
         
-        plugin.getLogger().info("Released arena instance " + instance.getInstanceId() + " from game " + gameId);
+        idle.sort(Comparator.comparingLong(ArenaInstance::getLastUsed));
+        for (int i = 0; i < idle.size() - template.getMaxIdle(); i++) {
+            ArenaInstance instance = idle.get(i);
+            instances.remove(instance.getInstanceId());
+            instanceIds.remove(instance.getInstanceId());
+            slotAllocators.get(templateId).release(instance.getSlot());
+            plugin.getLogger().info("Evicted idle arena instance: " + instance.getInstanceId());
+        }
     }
     
     /**
-     * Reset an arena instance by re-pasting the schematic
+     * Find the in-use instance containing a block, or null
+     */
+    public ArenaInstance getActiveInstanceAt(Block block) {
+        World world = block.getWorld();
+        int x = block.getX();
+        int y = block.getY();
+        int z = block.getZ();
+        synchronized (activeInstances) {
+            List<ArenaInstance> candidates = activeInstances.get(world, x, z);
+            for (int i = 0; i < candidates.size(); i++) {
+                ArenaInstance instance = candidates.get(i);
+                if (instance.contains(world, x, y, z)) {
+                    return instance;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private void indexActiveInstance(ArenaInstance instance) {
+        if (!instance.hasBounds()) {
+            return;
+        }
+        synchronized (activeInstances) {
+            activeInstances.add(instance, instance.getInstanceLocation().getWorld(),
+                    instance.getMinX(), instance.getMinZ(), instance.getMaxX(), instance.getMaxZ());
+        }
+    }
+    
+    /**
+     * Reset an arena instance by re-pasting the schematic.
+     * The instance stays unavailable until the paste engine has placed its last block.
      */
     public void resetArena(ArenaInstance instance) {
         if (instance == null) return;
         
-        ArenaTemplate template = instance.getTemplate();
-        plugin.pasteSchematic(template.getSchematicName(), instance.getInstanceLocation());
+        queuePaste(instance);
+        
+        plugin.getLogger().info("Queued reset for arena instance: " + instance.getInstanceId());
+    }
+    
+    /**
+     * Hand the instance's schematic to the paste engine and mark it as resetting
+     */
+    private void queuePaste(ArenaInstance instance) {
+        Clipboard clipboard = loadClipboard(instance.getTemplate().getSchematicName());
+        if (clipboard == null) {
+            return;
+        }
         
-        plugin.getLogger().info("Reset arena instance: " + instance.getInstanceId());
+        instance.setResetting(true);
+        pasteEngine.submit(clipboard, instance.getInstanceLocation(), () -> {
+            instance.setResetting(false);
+            plugin.getLogger().info("Arena instance " + instance.getInstanceId() + " is ready");
+            evictExcessIdle(instance.getTemplate().getTemplateId());
+            capacityListener.accept(instance.getTemplate().getTemplateId());
+        });
     }
     
     /**
-     * Calculate the location for a new instance based on spacing
+     * Work out the world-space region an instance's schematic occupies
      */
-    private Location calculateInstanceLocation(Location baseLocation, int instanceIndex) {
-        // Arrange instances in a grid pattern
-        int gridSize = 5; // 5x5 grid max
-        int row = instanceIndex / gridSize;
-        int col = instanceIndex % gridSize;
+    private void setInstanceBounds(ArenaInstance instance) {
+        Clipboard clipboard = loadClipboard(instance.getTemplate().getSchematicName());
+        if (clipboard == null) {
+            return;
+        }
         
-        double x = baseLocation.getX() + (col * INSTANCE_SPACING);
-        double z = baseLocation.getZ() + (row * INSTANCE_SPACING);
+        Location location = instance.getInstanceLocation();
+        BlockVector3 offset = BlockVector3.at(location.getBlockX(), location.getBlockY(), location.getBlockZ())
+                .subtract(clipboard.getOrigin());
+        BlockVector3 min = clipboard.getMinimumPoint().add(offset);
+        BlockVector3 max = clipboard.getMaximumPoint().add(offset);
+        instance.setBounds(min.x(), min.y(), min.z(), max.x(), max.y(), max.z());
+        instance.setOffset(offset.x(), offset.y(), offset.z());
+    }
+    
+    private Clipboard loadClipboard(String schematicName) {
+        try {
+            Clipboard clipboard = plugin.getSchematicCache().get(schematicName);
+            if (clipboard == null) {
+                plugin.getLogger().warning("Could not find clipboard format for schematic: " + schematicName);
+            }
+            return clipboard;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to load schematic " + schematicName + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Finish pending pastes so no arena is left half-built on shutdown
+     */
+    public void shutdown() {
+        pasteEngine.shutdown();
+    }
+    
+    /**
+     * Size a template's slot grid from its schematic bounds plus a margin.
+     * The grid is roughly square so instances stay close to the base location.
+     */
+    private SlotAllocator createSlotAllocator(ArenaTemplate template) {
+        int footprintX = DEFAULT_FOOTPRINT;
+        int footprintZ = DEFAULT_FOOTPRINT;
+        Clipboard clipboard = loadClipboard(template.getSchematicName());
+        if (clipboard != null) {
+            footprintX = clipboard.getMaximumPoint().x() - clipboard.getMinimumPoint().x() + 1 + INSTANCE_MARGIN;
+            footprintZ = clipboard.getMaximumPoint().z() - clipboard.getMinimumPoint().z() + 1 + INSTANCE_MARGIN;
+        }
+        
+        int columns = (int) Math.ceil(Math.sqrt(template.getMaxInstances()));
+        Location base = template.getBaseLocation();
+        return new SlotAllocator(base.getBlockX(), base.getBlockZ(), footprintX, footprintZ, columns);
+    }
+    
+    /**
+     * Calculate the paste location that puts the schematic's minimum corner
+     * on the corner of the slot's cell
+     */
+    private Location calculateInstanceLocation(ArenaTemplate template, SlotAllocator allocator, int slot) {
+        int x = allocator.getCellX(slot);
+        int z = allocator.getCellZ(slot);
+        
+        Clipboard clipboard = loadClipboard(template.getSchematicName());
+        if (clipboard != null) {
+            x += clipboard.getOrigin().x() - clipboard.getMinimumPoint().x();
+            z += clipboard.getOrigin().z() - clipboard.getMinimumPoint().z();
+        }
         
-        return new Location(baseLocation.getWorld(), x, baseLocation.getY(), z);
+        Location base = template.getBaseLocation();
+        return new Location(base.getWorld(), x, base.getY(), z);
     }
     
     /**
@@ -222,6 +526,7 @@ public class ArenaInstanceManager {
         
         templates.remove(templateId);
         templateInstances.remove(templateId);
+        slotAllocators.remove(templateId);
         
         plugin.getLogger().info("Removed arena template: " + templateId);
         return true;
@@ -236,17 +541,23 @@ public class ArenaInstanceManager {
         int totalTemplates = templates.size();
         int totalInstances = instances.size();
         int activeInstances = 0;
+        int resettingInstances = 0;
         
         for (ArenaInstance instance : instances.values()) {
             if (instance.isInUse()) {
                 activeInstances++;
+            } else if (instance.isResetting()) {
+                resettingInstances++;
             }
         }
         
         stats.put("totalTemplates", totalTemplates);
         stats.put("totalInstances", totalInstances);
         stats.put("activeInstances", activeInstances);
-        stats.put("availableInstances", totalInstances - activeInstances);
+        stats.put("resettingInstances", resettingInstances);
+        stats.put("availableInstances", totalInstances - activeInstances - resettingInstances);
+        stats.put("pendingPastes", pasteEngine.getPendingPasteCount());
+        stats.put("pasteBlockBudget", pasteEngine.getBlockBudget());
         
         return stats;
     }
@@ -260,7 +571,11 @@ public class ArenaInstanceManager {
         Map<String, Object> stats = getUsageStats();
         player.sendMessage("§7Templates: §f" + stats.get("totalTemplates"));
         player.sendMessage("§7Total Instances: §f" + stats.get("totalInstances"));
-        player.sendMessage("§7Active: §a" + stats.get("activeInstances") + " §7Available: §2" + stats.get("availableInstances"));
+        player.sendMessage("§7Active: §a" + stats.get("activeInstances") + " §7Available: §2" + stats.get("availableInstances") +
+                         " §7Resetting: §e" + stats.get("resettingInstances"));
+        player.sendMessage("§7Paste queue: §f" + stats.get("pendingPastes") + " §7(budget §f" + stats.get("pasteBlockBudget") + " §7blocks/tick)");
+        player.sendMessage("§7Schematic cache: §f" + plugin.getSchematicCache().size() + " §7loaded, §a" +
+                         plugin.getSchematicCache().getHits() + " §7hits, §c" + plugin.getSchematicCache().getMisses() + " §7misses");
         
         if (templates.isEmpty()) {
             player.sendMessage("§cNo templates registered.");
@@ -276,7 +591,8 @@ public class ArenaInstanceManager {
             }
             
             player.sendMessage("§7- §f" + template.getTemplateId() + " §7(§a" + active + "§7/§2" + 
-                             templateInstances.size() + "§7/§6" + template.getMaxInstances() + "§7)");
+                             templateInstances.size() + "§7/§6" + template.getMaxInstances() + "§7) idle §f" +
+                             template.getMinIdle() + "§7-§f" + template.getMaxIdle());
         }
     }
 }
\ No newline at end of file
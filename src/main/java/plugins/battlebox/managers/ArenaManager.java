@@ -6,17 +6,21 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.common.reflect.TypeToken;
 import org.bukkit.plugin.java.JavaPlugin;
+import plugins.battlebox.arena.RuntimeArena;
+import plugins.battlebox.game.Game;
 
 import java.io.*;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ArenaManager {
     private final JavaPlugin plugin;
-    private List<ArenaConfig> arenas;
+    private volatile Snapshot snapshot = Snapshot.EMPTY; // replaced wholesale, never modified
     private final File configFile;
 
     public ArenaManager(JavaPlugin plugin) {
@@ -39,6 +43,7 @@ public class ArenaManager {
     public void loadArenas() {
         Gson gson = new Gson();
         Type listType = new TypeToken<List<ArenaConfig>>() {}.getType();
+        List<ArenaConfig> arenas;
         
         try {
             // Try to load from data folder first
@@ -68,6 +73,16 @@ public class ArenaManager {
             plugin.getLogger().severe("Failed to load arenas.json: " + e.getMessage());
             arenas = new ArrayList<>();
         }
+        
+        Map<String, ArenaConfig> byId = new LinkedHashMap<>();
+        for (ArenaConfig arena : arenas) {
+            if (arena == null || arena.id == null) {
+                plugin.getLogger().warning("Skipping arena without an id in arenas.json");
+                continue;
+            }
+            byId.put(arena.id, arena);
+        }
+        publish(byId);
     }
     
     public void saveArenas() {
@@ -75,6 +90,7 @@ public class ArenaManager {
             Gson gson = new GsonBuilder().setPrettyPrinting().create();
             
             Map<String, Object> data = new HashMap<>();
+            List<ArenaConfig> arenas = snapshot.list;
             data.put("arenas", arenas);
             
             try (FileWriter writer = new FileWriter(configFile)) {
@@ -87,32 +103,85 @@ public class ArenaManager {
         }
     }
     
-    public void addArena(ArenaConfig arena) {
-        // Remove existing arena with same ID if it exists
-        arenas.removeIf(existing -> existing.id.equals(arena.id));
-        arenas.add(arena);
+    public synchronized void addArena(ArenaConfig arena) {
+        // Replaces an existing arena with the same ID
+        Map<String, ArenaConfig> byId = new LinkedHashMap<>(snapshot.byId);
+        byId.remove(arena.id);
+        byId.put(arena.id, arena);
+        publish(byId);
     }
     
     public boolean removeArena(String arenaId) {
-        boolean removed = arenas.removeIf(arena -> arena.id.equals(arenaId));
+        boolean removed;
+        synchronized (this) {
+            Map<String, ArenaConfig> byId = new LinkedHashMap<>(snapshot.byId);
+            removed = byId.remove(arenaId) != null;
+            if (removed) {
+                publish(byId);
+            }
+        }
         if (removed) {
             saveArenas();
         }
         return removed;
     }
     
+    /**
+     * Lock-free lookup, safe to call from any thread
+     */
     public ArenaConfig getArena(String arenaId) {
-        return arenas.stream()
-                .filter(arena -> arena.id.equals(arenaId))
-                .findFirst()
-                .orElse(null);
+        return arenaId == null ? null : snapshot.byId.get(arenaId);
+    }
+
+    /**
+     * Lock-free lookup of the compiled arena used during games
+     */
+    public RuntimeArena getRuntimeArena(String arenaId) {
+        return arenaId == null ? null : snapshot.runtime.get(arenaId);
+    }
+
+    /**
+     * The arena a game is played on: its instance's copy if it has one,
+     * otherwise the arena as configured
+     */
+    public RuntimeArena getRuntimeArena(Game game) {
+        RuntimeArena arena = game.getArena();
+        return arena != null ? arena : getRuntimeArena(game.getArenaId());
     }
 
+    /**
+     * Read-only view of the arenas at the time of the call
+     */
     public List<ArenaConfig> getArenas() {
-        return arenas;
+        return snapshot.list;
     }
     
     public void reloadArenas() {
         loadArenas();
     }
+    
+    private void publish(Map<String, ArenaConfig> byId) {
+        snapshot = new Snapshot(byId);
+    }
+    
+    /**
+     * Immutable arena set, indexed by ID, with each arena compiled for runtime use
+     */
+    private static class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new LinkedHashMap<>());
+        
+        final Map<String, ArenaConfig> byId;
+        final Map<String, RuntimeArena> runtime;
+        final List<ArenaConfig> list;
+        
+        Snapshot(Map<String, ArenaConfig> byId) {
+            Map<String, RuntimeArena> runtime = new HashMap<>();
+            for (ArenaConfig arena : byId.values()) {
+                runtime.put(arena.id, new RuntimeArena(arena));
+            }
+            this.byId = Collections.unmodifiableMap(byId);
+            this.runtime = Collections.unmodifiableMap(runtime);
+            this.list = Collections.unmodifiableList(new ArrayList<>(byId.values()));
+        }
+    }
 }
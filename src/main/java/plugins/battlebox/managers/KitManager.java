@@ -1,155 +1,255 @@
 package plugins.battlebox.managers;
 
-import org.bukkit.ChatColor;
+import java.io.File;
+import java.io.FileReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.bukkit.Color;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.LeatherArmorMeta;
+import org.bukkit.inventory.meta.PotionMeta;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.potion.PotionEffect;
-import org.bukkit.potion.PotionEffectType;
+import org.bukkit.potion.PotionData;
+import org.bukkit.potion.PotionType;
 
-import plugins.battlebox.core.VirtualPlayerUtil;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import config.Kit.KitDefinition;
+import config.Kit.KitDefinition.ItemDefinition;
+import plugins.battlebox.core.KitTemplate;
 import plugins.battlebox.game.Game;
 
+/**
+ * Loads kit definitions from kits.json and compiles each into one
+ * {@link KitTemplate} per team. Templates are swapped in as a whole on reload,
+ * so readers never see a half-built set.
+ */
 public class KitManager {
+    public static final String BASE_KIT = "base";
+
+    private static final String TEAM_WOOL = "TEAM_WOOL";
+    private static final int STORAGE_SLOTS = 36;
+
+    private final JavaPlugin plugin;
+    private final File configFile;
+    private volatile Map<String, KitTemplate[]> templates = Collections.emptyMap(); // lower-cased id -> per team ordinal
 
     public KitManager(JavaPlugin plugin) {
-        // Plugin reference stored for future use if needed
+        this.plugin = plugin;
+        this.configFile = new File(plugin.getDataFolder(), "kits.json");
+        if (!configFile.exists()) {
+            plugin.saveResource("kits.json", false);
+        }
+        loadKits();
     }
 
     /**
-     * Give a kit to a player based on kit type and team color
+     * The kit compiled for a team, or null if no kit has that id
      */
-    public void giveKit(Player player, String kitType, Game.TeamColor teamColor) {
-        // Clear inventory first
-        player.getInventory().clear();
-        player.getActivePotionEffects().clear();
-
-        // Set health and food
-        player.setHealth(20.0);
-        player.setFoodLevel(20);
-
-        // Get team wool color
-        Material woolType = (teamColor == Game.TeamColor.RED) ? Material.RED_WOOL : Material.BLUE_WOOL;
-
-        switch (kitType.toLowerCase()) {
-            case "healer" -> giveHealerKit(player, woolType);
-            case "fighter" -> giveFighterKit(player, woolType);
-            case "sniper" -> giveSniperKit(player, woolType);
-            case "speedster" -> giveSpeedsterKit(player, woolType);
-            default -> giveBasicKit(player, woolType);
-        }
-
-        VirtualPlayerUtil.safeSendMessage(player,
-                ChatColor.GREEN + "You received the " + ChatColor.YELLOW + kitType + ChatColor.GREEN + " kit!");
+    public KitTemplate getKit(String kitId, Game.TeamColor team) {
+        KitTemplate[] perTeam = templates.get(kitId.toLowerCase(Locale.ROOT));
+        return perTeam != null ? perTeam[team.ordinal()] : null;
     }
 
-    private void giveBasicKit(Player player, Material woolType) {
-        // Basic sword
-        ItemStack sword = new ItemStack(Material.IRON_SWORD);
-        player.getInventory().addItem(sword);
-
-        // Team wool (64 blocks)
-        ItemStack wool = new ItemStack(woolType, 64);
-        player.getInventory().addItem(wool);
-
-        // Food
-        ItemStack food = new ItemStack(Material.COOKED_BEEF, 8);
-        player.getInventory().addItem(food);
+    public boolean hasKit(String kitId) {
+        return templates.containsKey(kitId.toLowerCase(Locale.ROOT));
     }
 
-    private void giveHealerKit(Player player, Material woolType) {
-        // Healer sword (weaker)
-        ItemStack sword = new ItemStack(Material.STONE_SWORD);
-        player.getInventory().addItem(sword);
-
-        // Team wool
-        ItemStack wool = new ItemStack(woolType, 64);
-        player.getInventory().addItem(wool);
-
-        // Healing potions
-        ItemStack healingPots = new ItemStack(Material.SPLASH_POTION, 3);
-        ItemMeta healMeta = healingPots.getItemMeta();
-        healMeta.setDisplayName(ChatColor.RED + "Healing Potion");
-        healingPots.setItemMeta(healMeta);
-        player.getInventory().addItem(healingPots);
-
-        // Regeneration effect
-        player.addPotionEffect(new PotionEffect(PotionEffectType.REGENERATION, 600, 0));
-
-        // Food
-        ItemStack food = new ItemStack(Material.GOLDEN_APPLE, 4);
-        player.getInventory().addItem(food);
+    /**
+     * Ids of every loaded kit, in file order
+     */
+    public List<String> getKitIds() {
+        return new ArrayList<>(templates.keySet());
     }
 
-    private void giveFighterKit(Player player, Material woolType) {
-        // Strong sword
-        ItemStack sword = new ItemStack(Material.DIAMOND_SWORD);
-        sword.addEnchantment(Enchantment.DAMAGE_ALL, 1);
-        player.getInventory().addItem(sword);
-
-        // Team wool
-        ItemStack wool = new ItemStack(woolType, 64);
-        player.getInventory().addItem(wool);
+    public void loadKits() {
+        List<KitDefinition> definitions = readDefinitions();
 
-        // Strength effect
-        player.addPotionEffect(new PotionEffect(PotionEffectType.INCREASE_DAMAGE, 600, 0));
+        Map<String, KitDefinition> byId = new LinkedHashMap<>();
+        for (KitDefinition definition : definitions) {
+            if (definition == null || definition.id == null) {
+                plugin.getLogger().warning("Skipping kit without an id in kits.json");
+                continue;
+            }
+            byId.put(definition.id.toLowerCase(Locale.ROOT), definition);
+        }
 
-        // Food
-        ItemStack food = new ItemStack(Material.COOKED_BEEF, 8);
-        player.getInventory().addItem(food);
+        Map<String, KitTemplate[]> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, KitDefinition> entry : byId.entrySet()) {
+            List<KitDefinition> chain = resolveChain(entry.getValue(), byId);
+            if (chain == null) {
+                continue;
+            }
+            KitTemplate[] perTeam = new KitTemplate[Game.TeamColor.values().length];
+            for (Game.TeamColor team : Game.TeamColor.values()) {
+                perTeam[team.ordinal()] = compile(entry.getKey(), chain, team);
+            }
+            compiled.put(entry.getKey(), perTeam);
+        }
 
-        // Shield
-        ItemStack shield = new ItemStack(Material.SHIELD);
-        player.getInventory().setItemInOffHand(shield);
+        if (!compiled.containsKey(BASE_KIT)) {
+            plugin.getLogger().warning("kits.json has no '" + BASE_KIT + "' kit; players will start empty-handed");
+        }
+        templates = Collections.unmodifiableMap(compiled);
+        plugin.getLogger().info("Loaded " + compiled.size() + " kits from kits.json.");
     }
 
-    private void giveSniperKit(Player player, Material woolType) {
-        // Bow with enchantments
-        ItemStack bow = new ItemStack(Material.BOW);
-        bow.addEnchantment(Enchantment.ARROW_DAMAGE, 2);
-        bow.addEnchantment(Enchantment.ARROW_INFINITE, 1);
-        player.getInventory().addItem(bow);
+    private List<KitDefinition> readDefinitions() {
+        Gson gson = new Gson();
+        try {
+            // Data folder copy first, then the bundled default
+            if (configFile.exists()) {
+                try (FileReader reader = new FileReader(configFile)) {
+                    return parse(gson, reader);
+                }
+            }
+            try (InputStreamReader reader = new InputStreamReader(plugin.getResource("kits.json"))) {
+                return parse(gson, reader);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to load kits.json: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-        // Arrows (just 1 with infinity)
-        ItemStack arrows = new ItemStack(Material.ARROW, 1);
-        player.getInventory().addItem(arrows);
+    private List<KitDefinition> parse(Gson gson, Reader reader) {
+        JsonObject json = gson.fromJson(reader, JsonObject.class);
+        if (json == null || !json.has("kits")) {
+            return new ArrayList<>();
+        }
+        KitDefinition[] kits = gson.fromJson(json.getAsJsonArray("kits"), KitDefinition[].class);
+        return kits != null ? Arrays.asList(kits) : new ArrayList<>();
+    }
 
-        // Basic sword for close combat
-        ItemStack sword = new ItemStack(Material.IRON_SWORD);
-        player.getInventory().addItem(sword);
+    /**
+     * The kit and its parents, root first, or null if a parent is missing or
+     * the chain loops
+     */
+    private List<KitDefinition> resolveChain(KitDefinition definition, Map<String, KitDefinition> byId) {
+        List<KitDefinition> chain = new ArrayList<>();
+        KitDefinition current = definition;
+        while (current != null) {
+            if (chain.contains(current)) {
+                plugin.getLogger().warning("Kit '" + definition.id + "' has a parent loop; skipping it");
+                return null;
+            }
+            chain.add(0, current);
+            if (current.parent == null) {
+                break;
+            }
+            KitDefinition parent = byId.get(current.parent.toLowerCase(Locale.ROOT));
+            if (parent == null) {
+                plugin.getLogger().warning("Kit '" + current.id + "' extends unknown kit '" + current.parent
+                        + "'; skipping '" + definition.id + "'");
+                return null;
+            }
+            current = parent;
+        }
+        return chain;
+    }
 
-        // Team wool
-        ItemStack wool = new ItemStack(woolType, 64);
-        player.getInventory().addItem(wool);
+    private KitTemplate compile(String id, List<KitDefinition> chain, Game.TeamColor team) {
+        ItemStack[] contents = new ItemStack[STORAGE_SLOTS];
+        ItemStack[] armor = new ItemStack[4]; // boots, leggings, chestplate, helmet
+        ItemStack offHand = null;
+        String displayName = id;
+        int slot = 0;
+
+        // Parents first; a child's armor overrides, its items follow
+        for (KitDefinition definition : chain) {
+            if (definition.displayName != null) {
+                displayName = definition.displayName;
+            }
+            if (definition.items != null) {
+                for (ItemDefinition item : definition.items) {
+                    ItemStack stack = buildItem(id, item, team);
+                    if (stack == null) {
+                        continue;
+                    }
+                    if (slot >= STORAGE_SLOTS) {
+                        plugin.getLogger().warning("Kit '" + id + "' has more items than inventory slots");
+                        break;
+                    }
+                    contents[slot++] = stack;
+                }
+            }
+            armor[0] = override(armor[0], buildItem(id, definition.boots, team));
+            armor[1] = override(armor[1], buildItem(id, definition.leggings, team));
+            armor[2] = override(armor[2], buildItem(id, definition.chestplate, team));
+            armor[3] = override(armor[3], buildItem(id, definition.helmet, team));
+            offHand = override(offHand, buildItem(id, definition.offHand, team));
+        }
+        return new KitTemplate(id, displayName, contents, armor, offHand);
+    }
 
-        // Food
-        ItemStack food = new ItemStack(Material.COOKED_BEEF, 8);
-        player.getInventory().addItem(food);
+    private static ItemStack override(ItemStack inherited, ItemStack own) {
+        return own != null ? own : inherited;
     }
 
-    private void giveSpeedsterKit(Player player, Material woolType) {
-        // Fast sword
-        ItemStack sword = new ItemStack(Material.IRON_SWORD);
-        sword.addEnchantment(Enchantment.KNOCKBACK, 1);
-        player.getInventory().addItem(sword);
+    private ItemStack buildItem(String kitId, ItemDefinition definition, Game.TeamColor team) {
+        if (definition == null || definition.material == null) {
+            return null;
+        }
 
-        // Team wool
-        ItemStack wool = new ItemStack(woolType, 64);
-        player.getInventory().addItem(wool);
+        Material material = TEAM_WOOL.equalsIgnoreCase(definition.material)
+                ? (team == Game.TeamColor.RED ? Material.RED_WOOL : Material.BLUE_WOOL)
+                : Material.matchMaterial(definition.material);
+        if (material == null) {
+            plugin.getLogger().warning("Unknown material '" + definition.material + "' in kit '" + kitId + "'");
+            return null;
+        }
 
-        // Speed effect
-        player.addPotionEffect(new PotionEffect(PotionEffectType.SPEED, 600, 1));
-        player.addPotionEffect(new PotionEffect(PotionEffectType.JUMP, 600, 1));
+        ItemStack item = new ItemStack(material, Math.max(1, definition.amount));
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) {
+            return item;
+        }
 
-        // Food
-        ItemStack food = new ItemStack(Material.COOKED_BEEF, 8);
-        player.getInventory().addItem(food);
+        if (definition.name != null) {
+            meta.setDisplayName(definition.name);
+        }
+        if (definition.unbreakable) {
+            meta.setUnbreakable(true);
+        }
+        if (definition.teamColor && meta instanceof LeatherArmorMeta leather) {
+            leather.setColor(team == Game.TeamColor.RED ? Color.RED : Color.BLUE);
+        }
+        if (definition.potion != null && meta instanceof PotionMeta potionMeta) {
+            try {
+                potionMeta.setBasePotionData(new PotionData(PotionType.valueOf(definition.potion.toUpperCase(Locale.ROOT))));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Unknown potion '" + definition.potion + "' in kit '" + kitId + "'");
+            }
+        }
+        if (definition.enchantments != null) {
+            for (Map.Entry<String, Integer> entry : definition.enchantments.entrySet()) {
+                Enchantment enchantment = findEnchantment(entry.getKey());
+                if (enchantment == null) {
+                    plugin.getLogger().warning("Unknown enchantment '" + entry.getKey() + "' in kit '" + kitId + "'");
+                    continue;
+                }
+                meta.addEnchant(enchantment, entry.getValue() != null ? entry.getValue() : 1, true);
+            }
+        }
+        item.setItemMeta(meta);
+        return item;
+    }
 
-        // Ender pearls for mobility
-        ItemStack pearls = new ItemStack(Material.ENDER_PEARL, 2);
-        player.getInventory().addItem(pearls);
+    private static Enchantment findEnchantment(String name) {
+        // Minecraft keys, e.g. "unbreaking"
+        return Enchantment.getByKey(NamespacedKey.minecraft(name.toLowerCase(Locale.ROOT)));
     }
 }
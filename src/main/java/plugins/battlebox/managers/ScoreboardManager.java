@@ -1,14 +1,16 @@
 package plugins.battlebox.managers;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;   
+import org.bukkit.plugin.java.JavaPlugin;
 
 import fr.mrmicky.fastboard.FastBoard;
 import plugins.battlebox.core.VirtualPlayerUtil;
@@ -17,26 +19,121 @@ import plugins.battlebox.game.GameManager;
 import plugins.battlebox.game.GameState;
 
 public class ScoreboardManager {
+    // Fixed parts of the board, built once
+    private static final String TITLE = ChatColor.GOLD + "" + ChatColor.BOLD + "BattleBox";
+    private static final String PLAYER_PREFIX = ChatColor.AQUA + "Player: " + ChatColor.WHITE;
+    private static final String GAME_PREFIX = ChatColor.GREEN + "Game: " + ChatColor.WHITE;
+    private static final String ARENA_PREFIX = ChatColor.GREEN + "Arena: " + ChatColor.WHITE;
+    private static final String TEAM_PREFIX = ChatColor.GREEN + "Team: ";
+    private static final String PLAYERS_PREFIX = ChatColor.GREEN + "Players: " + ChatColor.WHITE;
+    private static final String NOT_IN_GAME = ChatColor.RED + "Status: " + ChatColor.WHITE + "Not in game";
+    private static final String JOIN_HINT = ChatColor.YELLOW + "Use /join to find a game!";
+    private static final String ONLINE_PREFIX = ChatColor.YELLOW + "Online: " + ChatColor.WHITE;
+    private static final String GAMES_PREFIX = ChatColor.YELLOW + "Games: " + ChatColor.WHITE;
+    private static final String FOOTER = ChatColor.GOLD + "play.battlebox.com";
+    private static final Map<GameState, String> STATUS_LINES = new EnumMap<>(GameState.class);
+    private static final Map<Game.TeamColor, String> TEAM_LINES = new EnumMap<>(Game.TeamColor.class);
+
+    static {
+        for (GameState state : GameState.values()) {
+            STATUS_LINES.put(state, ChatColor.GREEN + "Status: " + ChatColor.WHITE + getGameStateDisplay(state));
+        }
+        for (Game.TeamColor team : Game.TeamColor.values()) {
+            TEAM_LINES.put(team, TEAM_PREFIX + team.chatColor + team.displayName);
+        }
+    }
+
     private final GameManager gameManager;
-    private final Map<Player, FastBoard> playerScoreboards;
+    private final Map<Player, PlayerBoard> playerScoreboards;
     private final Map<Player, TimerInfo> playerTimers;
+    private final Map<Game, GameFrame> gameFrames; // shared lines per game, rebuilt when its revision changes
+    private int lastOnlineCount = -1; // server-wide inputs at the last refresh
+    private int lastGameCount = -1;
 
     public ScoreboardManager(JavaPlugin plugin, GameManager gameManager) {
         this.gameManager = gameManager;
         this.playerScoreboards = new HashMap<>();
         this.playerTimers = new HashMap<>();
+        this.gameFrames = new IdentityHashMap<>();
     }
 
     // Timer information storage class
     private static class TimerInfo {
-        public final String title;
-        public final String timeDisplay;
-        public final ChatColor color;
+        public final String titleLine;
+        public final String timeLine;
 
         public TimerInfo(String title, String timeDisplay, ChatColor color) {
-            this.title = title;
-            this.timeDisplay = timeDisplay;
-            this.color = color;
+            this.titleLine = color + "" + ChatColor.BOLD + title;
+            this.timeLine = color + "" + ChatColor.BOLD + timeDisplay;
+        }
+
+        boolean sameAs(TimerInfo other) {
+            return other != null && titleLine.equals(other.titleLine) && timeLine.equals(other.timeLine);
+        }
+    }
+
+    /**
+     * The part of the board every member of a game sees identically
+     */
+    private static class GameFrame {
+        private final int revision;
+        private final String gameLine;
+        private final String arenaLine;
+        private final String statusLine;
+        private final String playersLine;
+
+        GameFrame(Game game) {
+            this.revision = game.getRevision();
+            this.gameLine = GAME_PREFIX + game.getId();
+            this.arenaLine = ARENA_PREFIX + game.getArenaId();
+            this.statusLine = STATUS_LINES.get(game.getState());
+            this.playersLine = PLAYERS_PREFIX + game.getPlayerCount() + "/8";
+        }
+    }
+
+    /**
+     * A player's board with the lines last sent and what they were built from
+     */
+    private static class PlayerBoard {
+        private final FastBoard board;
+        private final String playerLine;
+        private List<String> sentLines = new ArrayList<>();
+        private boolean dirty = true;
+        private Game lastGame;
+        private int lastGameRevision;
+
+        PlayerBoard(FastBoard board, String playerName) {
+            this.board = board;
+            this.playerLine = PLAYER_PREFIX + playerName;
+        }
+
+        /**
+         * Check the player's game for changes since the last render
+         */
+        boolean isDirty(Game game) {
+            if (dirty || game != lastGame) {
+                return true;
+            }
+            return game != null && game.getRevision() != lastGameRevision;
+        }
+
+        /**
+         * Send only the lines that differ from what the client already shows
+         */
+        void render(List<String> lines, Game game) {
+            if (lines.size() == sentLines.size()) {
+                for (int i = 0; i < lines.size(); i++) {
+                    if (!lines.get(i).equals(sentLines.get(i))) {
+                        board.updateLine(i, lines.get(i));
+                    }
+                }
+            } else {
+                board.updateLines(lines);
+            }
+            sentLines = lines;
+            dirty = false;
+            lastGame = game;
+            lastGameRevision = game != null ? game.getRevision() : 0;
         }
     }
 
@@ -47,62 +144,67 @@ public class ScoreboardManager {
         }
 
         FastBoard board = new FastBoard(player);
-        board.updateTitle(ChatColor.GOLD + "" + ChatColor.BOLD + "BattleBox");
+        board.updateTitle(TITLE);
 
-        playerScoreboards.put(player, board);
+        playerScoreboards.put(player, new PlayerBoard(board, player.getName()));
         updateScoreboard(player);
     }
 
+    /**
+     * Rebuild a player's board now, sending only the changed lines
+     */
     public void updateScoreboard(Player player) {
         // Skip virtual players
         if (VirtualPlayerUtil.isVirtualPlayer(player)) {
             return;
         }
 
-        FastBoard board = playerScoreboards.get(player);
-        if (board == null)
+        PlayerBoard playerBoard = playerScoreboards.get(player);
+        if (playerBoard == null)
             return;
 
-        List<String> lines = new ArrayList<>();
+        Game currentGame = gameManager.getPlayerGame(player);
+        playerBoard.render(buildLines(player, playerBoard, currentGame), currentGame);
+    }
+
+    private List<String> buildLines(Player player, PlayerBoard playerBoard, Game currentGame) {
+        List<String> lines = new ArrayList<>(14);
 
         // Check if player has active timer
         TimerInfo timerInfo = playerTimers.get(player);
         if (timerInfo != null) {
             // Timer section at top
-            lines.add(timerInfo.color + "" + ChatColor.BOLD + timerInfo.title);
-            lines.add(timerInfo.color + "" + ChatColor.BOLD + timerInfo.timeDisplay);
-            lines.add("");
+            lines.add(timerInfo.titleLine);
+            lines.add(timerInfo.timeLine);
         }
 
-        // Empty line (if no timer)
-        if (timerInfo == null) {
-            lines.add("");
-        }
+        // Empty line
+        lines.add("");
 
         // Player info
-        lines.add(ChatColor.AQUA + "Player: " + ChatColor.WHITE + player.getName());
+        lines.add(playerBoard.playerLine);
 
         // Empty line
         lines.add("");
 
-        // Game status
-        Game currentGame = gameManager.getPlayerGame(player);
+        // Game status, shared by everyone in the game
         if (currentGame != null) {
-            lines.add(ChatColor.GREEN + "Game: " + ChatColor.WHITE + currentGame.getId());
-            lines.add(ChatColor.GREEN + "Arena: " + ChatColor.WHITE + currentGame.getArenaId());
-            lines.add(ChatColor.GREEN + "Status: " + ChatColor.WHITE + getGameStateDisplay(currentGame.getState()));
+            GameFrame frame = getGameFrame(currentGame);
+            lines.add(frame.gameLine);
+            lines.add(frame.arenaLine);
+            lines.add(frame.statusLine);
 
             // Show team info if in timer mode, otherwise show player count
             Game.TeamColor playerTeam = currentGame.getPlayerTeam(player);
             if (timerInfo != null && playerTeam != null) {
-                lines.add(ChatColor.GREEN + "Team: " + playerTeam.chatColor + playerTeam.displayName);
+                lines.add(TEAM_LINES.get(playerTeam));
             } else {
-                lines.add(ChatColor.GREEN + "Players: " + ChatColor.WHITE + currentGame.getPlayerCount() + "/8");
+                lines.add(frame.playersLine);
             }
         } else {
-            lines.add(ChatColor.RED + "Status: " + ChatColor.WHITE + "Not in game");
+            lines.add(NOT_IN_GAME);
             if (timerInfo == null) {
-                lines.add(ChatColor.YELLOW + "Use /join to find a game!");
+                lines.add(JOIN_HINT);
             }
         }
 
@@ -111,71 +213,34 @@ public class ScoreboardManager {
 
         // Server info (only show if no timer)
         if (timerInfo == null) {
-            lines.add(ChatColor.YELLOW + "Online: " + ChatColor.WHITE + Bukkit.getOnlinePlayers().size());
-            lines.add(ChatColor.YELLOW + "Games: " + ChatColor.WHITE + gameManager.getActiveGameCount());
+            lines.add(ONLINE_PREFIX + Bukkit.getOnlinePlayers().size());
+            lines.add(GAMES_PREFIX + gameManager.getActiveGameCount());
             lines.add("");
         }
 
         // Footer
-        lines.add(ChatColor.GOLD + "play.battlebox.com");
+        lines.add(FOOTER);
+        return lines;
+    }
 
-        board.updateLines(lines);
+    private GameFrame getGameFrame(Game game) {
+        GameFrame frame = gameFrames.get(game);
+        if (frame == null || frame.revision != game.getRevision()) {
+            frame = new GameFrame(game);
+            gameFrames.put(game, frame);
+        }
+        return frame;
     }
 
     /**
      * Update scoreboard with timer information
      */
     public void updateScoreboardWithTimer(Player player, String timerTitle, String timeDisplay, ChatColor color) {
-        // Skip virtual players
-        if (VirtualPlayerUtil.isVirtualPlayer(player)) {
-            return;
-        }
-
-        FastBoard board = playerScoreboards.get(player);
-        if (board == null)
-            return;
-
-        List<String> lines = new ArrayList<>();
-
-        // Timer section at top
-        lines.add(color + "" + ChatColor.BOLD + timerTitle);
-        lines.add(color + "" + ChatColor.BOLD + timeDisplay);
-
-        // Empty line
-        lines.add("");
-
-        // Player info
-        lines.add(ChatColor.AQUA + "Player: " + ChatColor.WHITE + player.getName());
-
-        // Empty line
-        lines.add("");
-
-        // Game status
-        Game currentGame = gameManager.getPlayerGame(player);
-        if (currentGame != null) {
-            lines.add(ChatColor.GREEN + "Game: " + ChatColor.WHITE + currentGame.getId());
-            lines.add(ChatColor.GREEN + "Arena: " + ChatColor.WHITE + currentGame.getArenaId());
-            lines.add(ChatColor.GREEN + "Status: " + ChatColor.WHITE + getGameStateDisplay(currentGame.getState()));
-
-            // Show team info
-            Game.TeamColor playerTeam = currentGame.getPlayerTeam(player);
-            if (playerTeam != null) {
-                lines.add(ChatColor.GREEN + "Team: " + playerTeam.chatColor + playerTeam.displayName);
-            }
-        } else {
-            lines.add(ChatColor.RED + "Status: " + ChatColor.WHITE + "Not in game");
-        }
-
-        // Empty line
-        lines.add("");
-
-        // Footer
-        lines.add(ChatColor.GOLD + "play.battlebox.com");
-
-        board.updateLines(lines);
+        setTimerInfo(player, timerTitle, timeDisplay, color);
+        updateScoreboard(player);
     }
 
-    private String getGameStateDisplay(GameState state) {
+    private static String getGameStateDisplay(GameState state) {
         return switch (state) {
             case WAITING -> "Waiting";
             case KIT_SELECTION -> "Kit Selection";
@@ -190,9 +255,9 @@ public class ScoreboardManager {
             return;
         }
 
-        FastBoard board = playerScoreboards.remove(player);
-        if (board != null) {
-            board.delete();
+        PlayerBoard playerBoard = playerScoreboards.remove(player);
+        if (playerBoard != null) {
+            playerBoard.board.delete();
         }
         // Also clean up timer info
         playerTimers.remove(player);
@@ -207,14 +272,35 @@ public class ScoreboardManager {
             return;
         }
 
-        playerTimers.put(player, new TimerInfo(timerTitle, timeDisplay, color));
+        setTimerInfo(player, new TimerInfo(timerTitle, timeDisplay, color));
+    }
+
+    /**
+     * Set the same timer information for a group of players, building the
+     * lines once
+     */
+    public void setTimerInfo(Iterable<Player> players, String timerTitle, String timeDisplay, ChatColor color) {
+        TimerInfo timerInfo = new TimerInfo(timerTitle, timeDisplay, color);
+        for (Player player : players) {
+            if (player.isOnline() && !VirtualPlayerUtil.isVirtualPlayer(player)) {
+                setTimerInfo(player, timerInfo);
+            }
+        }
+    }
+
+    private void setTimerInfo(Player player, TimerInfo timerInfo) {
+        if (!timerInfo.sameAs(playerTimers.put(player, timerInfo))) {
+            markDirty(player);
+        }
     }
 
     /**
      * Clear timer information for a player
      */
     public void clearTimerInfo(Player player) {
-        playerTimers.remove(player);
+        if (playerTimers.remove(player) != null) {
+            markDirty(player);
+        }
     }
 
     /**
@@ -222,14 +308,42 @@ public class ScoreboardManager {
      */
     public void clearTimerInfo(Iterable<Player> players) {
         for (Player player : players) {
-            playerTimers.remove(player);
+            clearTimerInfo(player);
+        }
+    }
+
+    private void markDirty(Player player) {
+        PlayerBoard playerBoard = playerScoreboards.get(player);
+        if (playerBoard != null) {
+            playerBoard.dirty = true;
         }
     }
 
+    /**
+     * Refresh every board whose inputs changed since it was last sent
+     */
     public void updateAllScoreboards() {
-        for (Player player : playerScoreboards.keySet()) {
-            if (VirtualPlayerUtil.isSafelyOnline(player)) {
-                updateScoreboard(player);
+        // Server-wide inputs shown on every lobby board
+        int onlineCount = Bukkit.getOnlinePlayers().size();
+        int gameCount = gameManager.getActiveGameCount();
+        boolean serverInfoChanged = onlineCount != lastOnlineCount || gameCount != lastGameCount;
+        lastOnlineCount = onlineCount;
+        lastGameCount = gameCount;
+
+        // Forget frames of games that have ended
+        gameFrames.keySet().removeIf(game -> gameManager.getGame(game.getId()) != game);
+
+        for (Map.Entry<Player, PlayerBoard> entry : playerScoreboards.entrySet()) {
+            Player player = entry.getKey();
+            PlayerBoard playerBoard = entry.getValue();
+            if (!VirtualPlayerUtil.isSafelyOnline(player)) {
+                continue;
+            }
+
+            Game currentGame = gameManager.getPlayerGame(player);
+            boolean showsServerInfo = !playerTimers.containsKey(player);
+            if ((serverInfoChanged && showsServerInfo) || playerBoard.isDirty(currentGame)) {
+                playerBoard.render(buildLines(player, playerBoard, currentGame), currentGame);
             }
         }
     }
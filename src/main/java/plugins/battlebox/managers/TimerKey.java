@@ -0,0 +1,87 @@
+package plugins.battlebox.managers;
+
+import java.util.Locale;
+
+import plugins.battlebox.game.Game;
+
+/**
+ * Identifies a timer by its owner (usually a game ID) and phase. Prints as
+ * {@code <phase>_<owner>}, the same IDs the timers used to be stored under.
+ */
+public final class TimerKey {
+    public enum Phase {
+        GAME, FIREWORKS, TEST, GLOBAL;
+
+        private final String prefix = name().toLowerCase(Locale.ROOT);
+
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    private final String owner;
+    private final Phase phase;
+
+    private TimerKey(String owner, Phase phase) {
+        if (owner == null || phase == null) {
+            throw new IllegalArgumentException("Timer owner and phase are required");
+        }
+        this.owner = owner;
+        this.phase = phase;
+    }
+
+    public static TimerKey of(String owner, Phase phase) {
+        return new TimerKey(owner, phase);
+    }
+
+    public static TimerKey of(Game game, Phase phase) {
+        return new TimerKey(game.getId(), phase);
+    }
+
+    /**
+     * Parse a {@code <phase>_<owner>} ID, or null if it doesn't name a known phase
+     */
+    public static TimerKey parse(String id) {
+        int separator = id.indexOf('_');
+        if (separator <= 0 || separator == id.length() - 1) {
+            return null;
+        }
+        String prefix = id.substring(0, separator).toLowerCase(Locale.ROOT);
+        for (Phase phase : Phase.values()) {
+            if (phase.prefix.equals(prefix)) {
+                return new TimerKey(id.substring(separator + 1), phase);
+            }
+        }
+        return null;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimerKey)) {
+            return false;
+        }
+        TimerKey other = (TimerKey) o;
+        return phase == other.phase && owner.equals(other.owner);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * owner.hashCode() + phase.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return phase.prefix + "_" + owner;
+    }
+}
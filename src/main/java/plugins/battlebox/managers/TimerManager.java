@@ -1,29 +1,36 @@
 package plugins.battlebox.managers;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
 import plugins.battlebox.game.Game;
 
 /**
- * Manages countdown timers displayed in scoreboard sidebar
+ * Manages countdown timers displayed in scoreboard sidebar. Every countdown
+ * and repeating task runs off one {@link TimingWheel}, advanced by a single
+ * scheduler task that only runs while something is scheduled.
  */
 public class TimerManager {
+    private static final long TICKS_PER_SECOND = 20L;
+
     private final JavaPlugin plugin;
-    private final Map<String, TimerInstance> activeTimers;
+    private final Map<TimerKey, TimerInstance> activeTimers;
+    private final Map<TimerKey, RepeatingTask> repeatingTasks;
+    private final TimingWheel wheel = new TimingWheel(); // main thread only
+    private BukkitTask driver;
     private ScoreboardManager scoreboardManager;
 
     public TimerManager(JavaPlugin plugin) {
         this.plugin = plugin;
-        this.activeTimers = new HashMap<>();
+        this.activeTimers = new ConcurrentHashMap<>();
+        this.repeatingTasks = new ConcurrentHashMap<>();
     }
 
     public void setScoreboardManager(ScoreboardManager scoreboardManager) {
@@ -39,7 +46,7 @@ public class TimerManager {
      * @param title      Main title text (null for default countdown)
      * @param onComplete Runnable to execute when timer completes
      */
-    public void startTimer(String timerId, Set<Player> players, int seconds, String title, Runnable onComplete) {
+    public void startTimer(TimerKey timerId, Set<Player> players, int seconds, String title, Runnable onComplete) {
         // Stop existing timer with same ID
         stopTimer(timerId);
 
@@ -55,7 +62,7 @@ public class TimerManager {
     /**
      * Start a countdown timer for all online players
      */
-    public void startGlobalTimer(String timerId, int seconds, String title, Runnable onComplete) {
+    public void startGlobalTimer(TimerKey timerId, int seconds, String title, Runnable onComplete) {
         startTimer(timerId, Set.copyOf(Bukkit.getOnlinePlayers()), seconds, title, onComplete);
     }
 
@@ -63,14 +70,13 @@ public class TimerManager {
      * Start a game timer for specific game
      */
     public void startGameTimer(Game game, int seconds, String title, Runnable onComplete) {
-        String timerId = "game_" + game.getId();
-        startTimer(timerId, game.getPlayers(), seconds, title, onComplete);
+        startTimer(TimerKey.of(game, TimerKey.Phase.GAME), game.getPlayers(), seconds, title, onComplete);
     }
 
     /**
      * Stop a timer by ID
      */
-    public void stopTimer(String timerId) {
+    public void stopTimer(TimerKey timerId) {
         TimerInstance timer = activeTimers.remove(timerId);
         if (timer != null) {
             timer.cancel();
@@ -78,6 +84,17 @@ public class TimerManager {
         }
     }
 
+    /**
+     * Stop every timer and repeating task owned by a game
+     */
+    public void stopTimers(String ownerId) {
+        for (TimerKey.Phase phase : TimerKey.Phase.values()) {
+            TimerKey key = TimerKey.of(ownerId, phase);
+            stopTimer(key);
+            stopRepeating(key);
+        }
+    }
+
     /**
      * Stop all active timers
      */
@@ -86,9 +103,146 @@ public class TimerManager {
             timer.cancel();
         }
         activeTimers.clear();
+        for (RepeatingTask task : repeatingTasks.values()) {
+            task.cancel();
+        }
+        repeatingTasks.clear();
+        if (driver != null) {
+            driver.cancel();
+            driver = null;
+        }
         plugin.getLogger().info("Stopped all timers");
     }
 
+    /**
+     * Pause a running timer, keeping its remaining time to the tick
+     *
+     * @return true if the timer was running and is now paused
+     */
+    public boolean pauseTimer(TimerKey timerId) {
+        TimerInstance timer = activeTimers.get(timerId);
+        return timer != null && timer.pause();
+    }
+
+    /**
+     * Resume a paused timer where it left off
+     *
+     * @return true if the timer was paused and is now running
+     */
+    public boolean resumeTimer(TimerKey timerId) {
+        TimerInstance timer = activeTimers.get(timerId);
+        return timer != null && timer.resume();
+    }
+
+    /**
+     * Run a task every {@code periodTicks} until stopped or, if
+     * {@code durationTicks} is positive, until that many ticks have passed.
+     * Replaces any task already running under the same key.
+     */
+    public void startRepeating(TimerKey taskId, long delayTicks, long periodTicks, long durationTicks, Runnable task) {
+        stopRepeating(taskId);
+
+        RepeatingTask repeating = new RepeatingTask(taskId, periodTicks, task);
+        repeatingTasks.put(taskId, repeating);
+        repeating.start(delayTicks, durationTicks);
+    }
+
+    /**
+     * @return true if a task was running under this key
+     */
+    public boolean stopRepeating(TimerKey taskId) {
+        RepeatingTask repeating = repeatingTasks.remove(taskId);
+        if (repeating == null) {
+            return false;
+        }
+        repeating.cancel();
+        return true;
+    }
+
+    /**
+     * Run a task once after a delay, on the shared timer tick
+     */
+    public TimingWheel.Timeout runLater(long delayTicks, Runnable task) {
+        TimingWheel.Timeout timeout = wheel.schedule(delayTicks, task);
+        ensureDriver();
+        return timeout;
+    }
+
+    /**
+     * Show a countdown value on the scoreboards of a group of players
+     */
+    public void showCountdown(Set<Player> players, String title, int seconds) {
+        // Update timer info for all players in timer (they'll be updated on next
+        // scoreboard refresh)
+        if (scoreboardManager != null) {
+            scoreboardManager.setTimerInfo(players, title, formatTime(seconds), getTimeColor(seconds));
+        }
+    }
+
+    /**
+     * Flash the "GO!" title to a group of players
+     */
+    public void showGo(Set<Player> players) {
+        for (Player player : players) {
+            if (player.isOnline()) {
+                player.sendTitle(ChatColor.GREEN + "" + ChatColor.BOLD + "GO!",
+                        ChatColor.GREEN + "Game Started!", 5, 30, 10);
+            }
+        }
+    }
+
+    /**
+     * Clear any countdown from the titles and scoreboards of a group of players
+     */
+    public void clearCountdown(Set<Player> players) {
+        for (Player player : players) {
+            if (player.isOnline()) {
+                player.sendTitle("", "", 0, 1, 0);
+                if (scoreboardManager != null) {
+                    scoreboardManager.clearTimerInfo(player);
+                }
+            }
+        }
+    }
+
+    private static String formatTime(int seconds) {
+        if (seconds >= 60) {
+            int minutes = seconds / 60;
+            int remainderSeconds = seconds % 60;
+            return String.format("%d:%02d", minutes, remainderSeconds);
+        } else {
+            return String.valueOf(seconds);
+        }
+    }
+
+    private static ChatColor getTimeColor(int seconds) {
+        if (seconds <= 3) {
+            return ChatColor.RED;
+        } else if (seconds <= 10) {
+            return ChatColor.YELLOW;
+        } else {
+            return ChatColor.GREEN;
+        }
+    }
+
+    private void ensureDriver() {
+        if (driver == null) {
+            driver = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    private void tick() {
+        try {
+            wheel.tick();
+        } finally {
+            // Nothing left to wait for; the next schedule restarts the driver
+            if (wheel.isEmpty() && driver != null) {
+                driver.cancel();
+                driver = null;
+            }
+        }
+    }
+
     /**
      * Get active timer count
      */
@@ -99,14 +253,14 @@ public class TimerManager {
     /**
      * Check if a timer is running
      */
-    public boolean isTimerRunning(String timerId) {
+    public boolean isTimerRunning(TimerKey timerId) {
         return activeTimers.containsKey(timerId);
     }
 
     /**
      * Get remaining time for a timer
      */
-    public int getRemainingTime(String timerId) {
+    public int getRemainingTime(TimerKey timerId) {
         TimerInstance timer = activeTimers.get(timerId);
         return timer != null ? timer.getRemainingSeconds() : -1;
     }
@@ -115,14 +269,15 @@ public class TimerManager {
      * Internal timer instance class
      */
     private class TimerInstance {
-        private final String id;
+        private final TimerKey id;
         private final Set<Player> players;
         private final String mainTitle;
         private final Runnable onComplete;
         private int remainingSeconds;
-        private BukkitTask task;
+        private TimingWheel.Timeout nextStep;
+        private long pausedTicks = -1; // ticks left until the next step while paused
 
-        public TimerInstance(String id, Set<Player> players, int seconds, String mainTitle, Runnable onComplete) {
+        public TimerInstance(TimerKey id, Set<Player> players, int seconds, String mainTitle, Runnable onComplete) {
             this.id = id;
             this.players = players;
             this.remainingSeconds = seconds;
@@ -131,41 +286,57 @@ public class TimerManager {
         }
 
         public void start() {
-            task = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (remainingSeconds <= 0) {
-                        // Timer finished
-                        showTimerComplete();
-                        activeTimers.remove(id);
-                        this.cancel();
-
-                        // Run completion callback
-                        if (onComplete != null) {
-                            onComplete.run();
-                        }
-                        return;
-                    }
+            // First step on the next tick, then once a second
+            nextStep = runLater(1L, this::step);
+        }
+
+        private void step() {
+            if (remainingSeconds <= 0) {
+                // Timer finished
+                nextStep = null;
+                showTimerComplete();
+                activeTimers.remove(id, this);
 
-                    // Show countdown
-                    showCountdown();
-                    remainingSeconds--;
+                // Run completion callback
+                if (onComplete != null) {
+                    onComplete.run();
                 }
-            }.runTaskTimer(plugin, 0L, 20L); // Run every second (20 ticks)
+                return;
+            }
+
+            // Show countdown
+            showCountdown();
+            remainingSeconds--;
+            nextStep = runLater(TICKS_PER_SECOND, this::step);
+        }
+
+        public boolean pause() {
+            long remaining = wheel.getRemainingTicks(nextStep);
+            if (remaining < 0) {
+                return false;
+            }
+            wheel.cancel(nextStep);
+            nextStep = null;
+            pausedTicks = remaining;
+            return true;
+        }
+
+        public boolean resume() {
+            if (pausedTicks < 0) {
+                return false;
+            }
+            nextStep = runLater(pausedTicks, this::step);
+            pausedTicks = -1;
+            return true;
         }
 
         public void cancel() {
-            if (task != null) {
-                task.cancel();
+            if (nextStep != null || pausedTicks >= 0) {
+                wheel.cancel(nextStep);
+                nextStep = null;
+                pausedTicks = -1;
                 // Clear titles and timer info for all players
-                for (Player player : players) {
-                    if (player.isOnline()) {
-                        player.sendTitle("", "", 0, 1, 0);
-                        if (scoreboardManager != null) {
-                            scoreboardManager.clearTimerInfo(player);
-                        }
-                    }
-                }
+                clearCountdown(players);
             }
         }
 
@@ -174,60 +345,65 @@ public class TimerManager {
         }
 
         private void showCountdown() {
-            String timeDisplay = formatTime(remainingSeconds);
-            ChatColor color = getTimeColor(remainingSeconds);
-
-            // Update timer info for all players in timer (they'll be updated on next
-            // scoreboard refresh)
-            for (Player player : players) {
-                if (player.isOnline() && scoreboardManager != null) {
-                    scoreboardManager.setTimerInfo(player, mainTitle, timeDisplay, color);
-                }
-            }
+            TimerManager.this.showCountdown(players, mainTitle, remainingSeconds);
         }
 
         private void showTimerComplete() {
             // Clear timer info and briefly show completion message
-            for (Player player : players) {
-                if (player.isOnline()) {
-                    if (scoreboardManager != null) {
-                        scoreboardManager.setTimerInfo(player, "GAME STARTED", "GO!", ChatColor.GREEN);
-                    }
-                    // Send a brief title as well for the "GO!" moment
-                    player.sendTitle(ChatColor.GREEN + "" + ChatColor.BOLD + "GO!",
-                            ChatColor.GREEN + "Game Started!", 5, 30, 10);
-                }
+            if (scoreboardManager != null) {
+                scoreboardManager.setTimerInfo(players, "GAME STARTED", "GO!", ChatColor.GREEN);
             }
+            showGo(players);
 
             // After 2 seconds, clear timer info (normal scoreboard will show on next
             // update)
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            runLater(2 * TICKS_PER_SECOND, () -> {
                 for (Player player : players) {
                     if (player.isOnline() && scoreboardManager != null) {
                         scoreboardManager.clearTimerInfo(player);
                     }
                 }
-            }, 40L); // 2 seconds
+            });
         }
+    }
 
-        private String formatTime(int seconds) {
-            if (seconds >= 60) {
-                int minutes = seconds / 60;
-                int remainderSeconds = seconds % 60;
-                return String.format("%d:%02d", minutes, remainderSeconds);
-            } else {
-                return String.valueOf(seconds);
-            }
+    /**
+     * A task re-run on a fixed tick period off the shared wheel
+     */
+    private class RepeatingTask {
+        private final TimerKey id;
+        private final long periodTicks;
+        private final Runnable task;
+        private TimingWheel.Timeout nextRun;
+        private TimingWheel.Timeout expiry;
+
+        RepeatingTask(TimerKey id, long periodTicks, Runnable task) {
+            this.id = id;
+            this.periodTicks = Math.max(1L, periodTicks);
+            this.task = task;
         }
 
-        private ChatColor getTimeColor(int seconds) {
-            if (seconds <= 3) {
-                return ChatColor.RED;
-            } else if (seconds <= 10) {
-                return ChatColor.YELLOW;
-            } else {
-                return ChatColor.GREEN;
+        void start(long delayTicks, long durationTicks) {
+            nextRun = runLater(delayTicks, this::run);
+            if (durationTicks > 0) {
+                expiry = runLater(durationTicks, () -> {
+                    // Only if it hasn't been replaced under the same key since
+                    if (repeatingTasks.remove(id, this)) {
+                        cancel();
+                    }
+                });
             }
         }
+
+        private void run() {
+            // Reschedule first so a failing task keeps its slot
+            nextRun = runLater(periodTicks, this::run);
+            task.run();
+        }
+
+        void cancel() {
+            wheel.cancel(nextRun);
+            wheel.cancel(expiry);
+        }
     }
 }
@@ -0,0 +1,153 @@
+package plugins.battlebox.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel driven one server tick at a time. Each bucket holds a
+ * doubly linked list of timeouts whose deadline maps to it, so scheduling and
+ * cancelling are O(1); a tick only looks at one bucket. Deadlines further out
+ * than the wheel size wait in their bucket until a later lap. Main thread only.
+ */
+public class TimingWheel {
+    private static final int DEFAULT_SIZE = 256; // ticks per lap, power of two
+
+    private static final int QUEUED = 0;
+    private static final int EXPIRING = 1; // due this tick, waiting for its turn to run
+    private static final int DONE = 2;
+
+    /**
+     * A scheduled task. Hold on to it to cancel or reschedule.
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private Timeout prev;
+        private Timeout next;
+        private int state = QUEUED;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+
+    private final Timeout[] buckets;
+    private final int mask;
+    private final List<Timeout> expired = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel() {
+        this(DEFAULT_SIZE);
+    }
+
+    public TimingWheel(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+        this.buckets = new Timeout[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Run a task after a number of ticks (at least one)
+     */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        Timeout timeout = new Timeout(task, currentTick + Math.max(1L, delayTicks));
+        int bucket = (int) (timeout.deadline & mask);
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return true if the timeout had not run yet
+     */
+    public boolean cancel(Timeout timeout) {
+        if (timeout == null || timeout.state == DONE) {
+            return false;
+        }
+        if (timeout.state == QUEUED) {
+            unlink(timeout);
+        }
+        timeout.state = DONE;
+        return true;
+    }
+
+    /**
+     * Ticks left until a pending timeout runs, or -1 if it already ran or was cancelled
+     */
+    public long getRemainingTicks(Timeout timeout) {
+        return timeout != null && timeout.state == QUEUED ? timeout.deadline - currentTick : -1;
+    }
+
+    /**
+     * Advance one tick and run every timeout that is due. Tasks may schedule
+     * or cancel other timeouts while running.
+     */
+    public void tick() {
+        currentTick++;
+        Timeout timeout = buckets[(int) (currentTick & mask)];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadline <= currentTick) {
+                unlink(timeout);
+                timeout.state = EXPIRING;
+                expired.add(timeout);
+            }
+            timeout = next;
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        // One failing task must not strand the rest of the batch
+        RuntimeException failure = null;
+        for (Timeout due : expired) {
+            // Skip anything an earlier task in this batch cancelled
+            if (due.state != EXPIRING) {
+                continue;
+            }
+            due.state = DONE;
+            try {
+                due.task.run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        expired.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void unlink(Timeout timeout) {
+        int bucket = (int) (timeout.deadline & mask);
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        size--;
+    }
+}